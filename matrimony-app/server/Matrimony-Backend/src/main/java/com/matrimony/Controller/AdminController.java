@@ -2,6 +2,8 @@ package com.matrimony.Controller;
 
 import com.matrimony.Entity.User;
 import com.matrimony.Service.AdminService;
+import com.matrimony.Service.CoAcceptanceJob;
+import com.matrimony.Service.MatchRecomputeJob;
 import com.matrimony.Security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -22,6 +24,12 @@ public class AdminController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private MatchRecomputeJob matchRecomputeJob;
+
+    @Autowired
+    private CoAcceptanceJob coAcceptanceJob;
+
     // Dashboard Overview
     @GetMapping("/dashboard")
     public ResponseEntity<?> getDashboardStats(@RequestHeader("Authorization") String token) {
@@ -232,6 +240,54 @@ public class AdminController {
     }
 
 
+    // Match Maintenance
+    @PostMapping("/matches/recompute")
+    public ResponseEntity<?> recomputeMatches(@RequestHeader("Authorization") String token) {
+        try {
+            if (!isAdminUser(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied. Admin role required.");
+            }
+            if (!matchRecomputeJob.start()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("A match recompute is already running");
+            }
+            return ResponseEntity.accepted().body(matchRecomputeJob.getStatus());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error starting match recompute: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/matches/recompute/status")
+    public ResponseEntity<?> getRecomputeStatus(@RequestHeader("Authorization") String token) {
+        try {
+            if (!isAdminUser(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied. Admin role required.");
+            }
+            return ResponseEntity.ok(matchRecomputeJob.getStatus());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error fetching match recompute status: " + e.getMessage());
+        }
+    }
+
+    // Apply acceptances since the last co-acceptance run now instead of waiting for the schedule
+    @PostMapping("/matches/co-acceptance/run")
+    public ResponseEntity<?> runCoAcceptance(@RequestHeader("Authorization") String token) {
+        try {
+            if (!isAdminUser(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied. Admin role required.");
+            }
+            int applied = coAcceptanceJob.run();
+            if (applied < 0) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("A co-acceptance update is already running");
+            }
+            return ResponseEntity.ok(Map.of("success", true, "acceptancesApplied", applied));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error running co-acceptance update: " + e.getMessage());
+        }
+    }
+
 
     // Helper method to check if user is admin
     private boolean isAdminUser(String token) {
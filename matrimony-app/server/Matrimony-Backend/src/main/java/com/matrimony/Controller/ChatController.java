@@ -0,0 +1,61 @@
+package com.matrimony.Controller;
+
+import com.matrimony.Entity.User;
+import com.matrimony.Service.MessageService;
+import com.matrimony.Service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Sending over the STOMP connection, for clients that already hold one open.
+ * Clients send {"receiverId": .., "content": ".."} to /app/messages.send; the sender
+ * is the session's authenticated user and MessageService.checkCanSend applies, as it does
+ * for POST /messages/send.
+ * The outcome comes back on /user/queue/send-result, and the receiver gets the message
+ * on /user/queue/messages through MessageService.
+ */
+@Controller
+public class ChatController {
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private UserService userService;
+
+    @MessageMapping("/messages.send")
+    @SendToUser(destinations = "/queue/send-result", broadcast = false)
+    public Map<String, Object> sendMessage(@Payload Map<String, Object> payload, Principal principal) {
+        try {
+            User sender = principal != null ? userService.getUserByEmail(principal.getName()) : null;
+            if (sender == null) {
+                return Map.of("success", false, "error", "Authentication required");
+            }
+
+            Object receiverValue = payload.get("receiverId");
+            Object content = payload.get("content");
+            if (!(receiverValue instanceof Number) || !(content instanceof String) || ((String) content).isBlank()) {
+                return Map.of("success", false, "error", "receiverId and content are required");
+            }
+            Long receiverId = ((Number) receiverValue).longValue();
+
+            MessageService.SendRefusal refusal = messageService.checkCanSend(sender, receiverId);
+            if (refusal != null) {
+                return Map.of("success", false, "error", refusal.getMessage());
+            }
+
+            Long messageId = messageService.sendMessage(sender.getId(), receiverId, (String) content).getId();
+            return Map.of("success", true, "messageId", messageId);
+
+        } catch (Exception e) {
+            System.err.println("Error sending message over WebSocket: " + e.getMessage());
+            return Map.of("success", false, "error", "Failed to send message: " + e.getMessage());
+        }
+    }
+}
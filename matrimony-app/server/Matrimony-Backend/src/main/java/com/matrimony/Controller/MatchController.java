@@ -1,16 +1,25 @@
 package com.matrimony.Controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.matrimony.CustomExceptions.ApiException;
+import com.matrimony.Dto.MatchPageDto;
+import com.matrimony.Dto.MatchResultDto;
+import com.matrimony.Dto.NearbyMatchDto;
 import com.matrimony.Dto.PreferencesDto;
 import com.matrimony.Dto.UserRegisterDto;
 import com.matrimony.Entity.User;
@@ -29,4 +38,64 @@ public class MatchController {
     public List<User> getMatches(@PathVariable Long Id) {
         return matchService.getMatches(Id);
     }
+
+    // Top matches ranked by how many preferences they satisfy
+    @GetMapping("/ranked/{Id}")
+    public List<MatchResultDto> getRankedMatches(@PathVariable Long Id,
+                                                 @RequestParam(defaultValue = "20") int limit) {
+        return matchService.getRankedMatches(Id, limit);
+    }
+
+    // Two-sided matches: both users satisfy each other's preferences
+    @GetMapping("/reciprocal/{Id}")
+    public List<MatchResultDto> getReciprocalMatches(@PathVariable Long Id,
+                                                     @RequestParam(defaultValue = "20") int limit) {
+        return matchService.getReciprocalMatches(Id, limit);
+    }
+
+    // Matches within km of the user's location, nearest first
+    @GetMapping("/nearby/{Id}")
+    public ResponseEntity<?> getNearbyMatches(@PathVariable Long Id,
+                                              @RequestParam(defaultValue = "50") int km,
+                                              @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<NearbyMatchDto> matches = matchService.getNearbyMatches(Id, km, limit);
+            return ResponseEntity.ok(matches);
+        } catch (ApiException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    // Keyset-paginated matches: pass the returned nextCursor to fetch the following page
+    @GetMapping("/find/{Id}/page")
+    public ResponseEntity<?> getMatchPage(@PathVariable Long Id,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "20") int limit) {
+        try {
+            MatchPageDto page = matchService.getMatches(Id, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (ApiException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    // Every match as NDJSON, streamed so large match sets are never held in memory
+    @GetMapping(value = "/export/{Id}", produces = "application/x-ndjson")
+    public ResponseEntity<?> exportMatches(@PathVariable Long Id) {
+        // Checked up front: once the body starts streaming the 200 is already committed
+        try {
+            matchService.checkExportReady();
+        } catch (ApiException e) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("success", false, "error", e.getMessage()));
+        }
+
+        StreamingResponseBody body = out -> matchService.exportMatches(Id, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .body(body);
+    }
 }
\ No newline at end of file
@@ -1,16 +1,18 @@
 package com.matrimony.Controller;
 
+import com.matrimony.Dto.InboxEntryDto;
+import com.matrimony.Dto.MessagePageDto;
 import com.matrimony.Entity.Message;
 import com.matrimony.Entity.User;
 import com.matrimony.Service.MessageService;
 import com.matrimony.Service.UserService;
-import com.matrimony.Service.PendingRequestService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -25,8 +27,6 @@ public class MessageController {
     @Autowired
     private UserService userService;
     
-    @Autowired
-    private PendingRequestService pendingRequestService;
 
     // Endpoint to send a message
     @PostMapping("/send")
@@ -56,29 +56,12 @@ public class MessageController {
                     .body(Map.of("success", false, "error", "You can only send messages from your own account"));
             }
             
-            // Check if sender's profile is approved
-            if (!authenticatedUser.getProfileApproved()) {
-                return ResponseEntity.badRequest()
-                    .body(Map.of("success", false, "error", "Your profile must be approved by admin before you can send messages"));
-            }
-            
-            // Check if sender is active
-            if (!authenticatedUser.getIsActive()) {
-                return ResponseEntity.badRequest()
-                    .body(Map.of("success", false, "error", "Your account must be active to send messages"));
-            }
-            
-            // Check if users are connected (have accepted pending request)
-            boolean isConnected = pendingRequestService.isConnected(senderId, receiverId);
-            System.out.println("=== MESSAGE SEND DEBUG ===");
-            System.out.println("Sender ID: " + senderId);
-            System.out.println("Receiver ID: " + receiverId);
-            System.out.println("Are connected: " + isConnected);
-            System.out.println("==========================");
-            
-            if (!isConnected) {
-                return ResponseEntity.badRequest()
-                    .body(Map.of("success", false, "error", "You can only send messages to users you are connected with"));
+            // Approved and active sender, no block, accepted connection; shared with the STOMP send
+            MessageService.SendRefusal refusal = messageService.checkCanSend(authenticatedUser, receiverId);
+            if (refusal != null) {
+                HttpStatus status = refusal == MessageService.SendRefusal.BLOCKED ? HttpStatus.FORBIDDEN : HttpStatus.BAD_REQUEST;
+                return ResponseEntity.status(status)
+                    .body(Map.of("success", false, "error", refusal.getMessage()));
             }
             
             // Call the service layer to send the message
@@ -130,6 +113,42 @@ public class MessageController {
         }
     }
 
+    // Conversation history a page at a time: omit beforeId for the latest messages,
+    // then pass the returned nextBeforeId to scroll back
+    @GetMapping("/conversation/page")
+    public ResponseEntity<?> getConversationPage(@RequestParam Long user1Id,
+                                                 @RequestParam Long user2Id,
+                                                 @RequestParam(required = false) Long beforeId,
+                                                 @RequestParam(defaultValue = "30") int limit,
+                                                 HttpServletRequest request) {
+        try {
+            String authenticatedUsername = request.getUserPrincipal() != null ? request.getUserPrincipal().getName() : null;
+            if (authenticatedUsername == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("success", false, "error", "Authentication required"));
+            }
+
+            User authenticatedUser = userService.getUserByEmail(authenticatedUsername);
+            if (authenticatedUser == null
+                    || (!authenticatedUser.getId().equals(user1Id) && !authenticatedUser.getId().equals(user2Id))) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "error", "You can only view conversations you are part of"));
+            }
+
+            MessagePageDto page = messageService.getConversationPage(user1Id, user2Id, beforeId, limit);
+            Map<String, Object> body = new HashMap<>();
+            body.put("success", true);
+            body.put("messages", page.getMessages());
+            body.put("nextBeforeId", page.getNextBeforeId());
+            return ResponseEntity.ok(body);
+
+        } catch (Exception e) {
+            System.err.println("Error getting conversation page: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("success", false, "error", "Failed to get conversation"));
+        }
+    }
+
     // Endpoint to get all conversations for a user
     @GetMapping("/conversations")
     public ResponseEntity<?> getConversations(@RequestParam Long userId, HttpServletRequest request) {
@@ -170,9 +189,36 @@ public class MessageController {
         }
     }
     
+    // Inbox summary: one entry per peer with the latest message and unread count, newest first
+    @GetMapping("/inbox")
+    public ResponseEntity<?> getInbox(@RequestParam Long userId, HttpServletRequest request) {
+        try {
+            String authenticatedUsername = request.getUserPrincipal() != null ? request.getUserPrincipal().getName() : null;
+            if (authenticatedUsername == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("success", false, "error", "Authentication required"));
+            }
+
+            User authenticatedUser = userService.getUserByEmail(authenticatedUsername);
+            if (authenticatedUser == null || !authenticatedUser.getId().equals(userId)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "error", "You can only view your own inbox"));
+            }
+
+            List<InboxEntryDto> inbox = messageService.getInbox(userId);
+            return ResponseEntity.ok(Map.of("success", true, "inbox", inbox));
+
+        } catch (Exception e) {
+            System.err.println("Error getting inbox: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("success", false, "error", "Failed to get inbox"));
+        }
+    }
+
     @PostMapping("/markAsRead")
     public ResponseEntity<?> markMessagesAsRead(@RequestParam Long user1Id, 
                                               @RequestParam Long user2Id,
+                                              @RequestParam(required = false) Long upToId,
                                               HttpServletRequest request) {
         try {
             // Get authenticated user from Spring Security context
@@ -196,8 +242,9 @@ public class MessageController {
                     .body(Map.of("success", false, "error", "You can only mark messages as read for conversations you are part of"));
             }
             
-        messageService.markMessagesAsRead(user1Id, user2Id);
-            return ResponseEntity.ok(Map.of("success", true, "message", "Messages marked as read"));
+            // user1 is the reader; upToId limits the update to messages the client has actually shown
+            int updated = messageService.markMessagesAsRead(user1Id, user2Id, upToId);
+            return ResponseEntity.ok(Map.of("success", true, "message", "Messages marked as read", "updated", updated));
             
         } catch (Exception e) {
             System.err.println("Error marking messages as read: " + e.getMessage());
@@ -0,0 +1,71 @@
+package com.matrimony.Controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.matrimony.Entity.Notification;
+import com.matrimony.Entity.User;
+import com.matrimony.Service.NotificationService;
+import com.matrimony.Service.UserService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/user/notifications")
+@CrossOrigin(origins = "http://localhost:3000")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserService userService;
+
+    // Newest notifications first, with the number still unread
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getNotifications(@PathVariable Long id,
+                                              @RequestParam(defaultValue = "20") int limit,
+                                              HttpServletRequest request) {
+        ResponseEntity<?> denied = checkOwner(id, request);
+        if (denied != null) {
+            return denied;
+        }
+
+        List<Notification> notifications = notificationService.getNotifications(id, limit);
+        return ResponseEntity.ok(Map.of("success", true,
+            "notifications", notifications,
+            "unread", notificationService.countUnread(id)));
+    }
+
+    @PostMapping("/{id}/read")
+    public ResponseEntity<?> markAllRead(@PathVariable Long id, HttpServletRequest request) {
+        ResponseEntity<?> denied = checkOwner(id, request);
+        if (denied != null) {
+            return denied;
+        }
+
+        int updated = notificationService.markAllRead(id);
+        return ResponseEntity.ok(Map.of("success", true, "updated", updated));
+    }
+
+    // Null when the authenticated user owns the given account, otherwise the error response
+    private ResponseEntity<?> checkOwner(Long id, HttpServletRequest request) {
+        String authenticatedUsername = request.getUserPrincipal() != null ? request.getUserPrincipal().getName() : null;
+        if (authenticatedUsername == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("success", false, "error", "Authentication required"));
+        }
+
+        User authenticatedUser = userService.getUserByEmail(authenticatedUsername);
+        if (authenticatedUser == null || !authenticatedUser.getId().equals(id)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("success", false, "error", "You can only read notifications for your own account"));
+        }
+        return null;
+    }
+}
@@ -2,6 +2,7 @@ package com.matrimony.Controller;
 
 import com.matrimony.Entity.PendingRequest;
 import com.matrimony.Entity.User;
+import com.matrimony.Service.ExclusionIndex;
 import com.matrimony.Service.PendingRequestService;
 import com.matrimony.Service.UserService;
 
@@ -24,6 +25,7 @@ public class PendingRequestController {
 
   @Autowired private PendingRequestService prs;
   @Autowired private UserService us;
+  @Autowired private ExclusionIndex exclusionIndex;
 
   @PostMapping("/send")
   public ResponseEntity<?> send(@RequestParam Long senderId, 
@@ -63,6 +65,12 @@ public class PendingRequestController {
         return ResponseEntity.badRequest()
             .body(Map.of("success", false, "error", "Cannot send request to yourself"));
       }
+
+      // Neither side may reach the other once either has blocked them
+      if (exclusionIndex.isBlocked(senderId, receiverId)) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+            .body(Map.of("success", false, "error", "You cannot send a request to this user"));
+      }
       
       // Check if request already exists
       if (prs.hasSentRequest(senderId, receiverId)) {
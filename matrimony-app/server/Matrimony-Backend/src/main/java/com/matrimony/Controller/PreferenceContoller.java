@@ -5,8 +5,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.matrimony.CustomExceptions.ApiException;
+import com.matrimony.Dto.MatchPreviewDto;
 import com.matrimony.Entity.Preferences;
 import com.matrimony.Entity.User;
+import com.matrimony.Service.MatchService;
 import com.matrimony.Service.PreferenceService;
 import com.matrimony.Service.UserService;
 
@@ -23,6 +26,9 @@ public class PreferenceContoller {
     
     @Autowired
     private UserService userService;
+
+    @Autowired
+    private MatchService matchService;
     
     @PostMapping("/save/{id}")
     public ResponseEntity<?> savePreferences(@RequestBody Preferences preferences, 
@@ -71,4 +77,30 @@ public class PreferenceContoller {
                 .body(Map.of("success", false, "error", "Failed to save preferences: " + e.getMessage()));
         }
     }
+
+    // Match count and per-location/religion/profession counts for preferences that are not saved yet
+    @PostMapping("/preview/{id}")
+    public ResponseEntity<?> previewPreferences(@RequestBody Preferences preferences,
+                                                @PathVariable Long id,
+                                                HttpServletRequest request) {
+        String authenticatedUsername = request.getUserPrincipal() != null ? request.getUserPrincipal().getName() : null;
+        if (authenticatedUsername == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("success", false, "error", "Authentication required"));
+        }
+
+        User authenticatedUser = userService.getUserByEmail(authenticatedUsername);
+        if (authenticatedUser == null || !authenticatedUser.getId().equals(id)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("success", false, "error", "You can only preview preferences for your own account"));
+        }
+
+        try {
+            MatchPreviewDto preview = matchService.previewMatches(id, preferences);
+            return ResponseEntity.ok(Map.of("success", true, "preview", preview));
+        } catch (ApiException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
 }
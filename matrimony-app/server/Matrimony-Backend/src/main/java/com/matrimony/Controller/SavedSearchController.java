@@ -0,0 +1,94 @@
+package com.matrimony.Controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.matrimony.CustomExceptions.ApiException;
+import com.matrimony.CustomExceptions.ResourceNotFoundException;
+import com.matrimony.Entity.SavedSearch;
+import com.matrimony.Entity.User;
+import com.matrimony.Service.SavedSearchService;
+import com.matrimony.Service.UserService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/user/saved-searches")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SavedSearchController {
+
+    @Autowired
+    private SavedSearchService savedSearchService;
+
+    @Autowired
+    private UserService userService;
+
+    // Save a search; its owner is notified when a newly approved profile matches all of its fields
+    @PostMapping("/{id}")
+    public ResponseEntity<?> createSearch(@RequestBody SavedSearch search,
+                                          @PathVariable Long id,
+                                          HttpServletRequest request) {
+        ResponseEntity<?> denied = checkOwner(id, request);
+        if (denied != null) {
+            return denied;
+        }
+
+        try {
+            SavedSearch saved = savedSearchService.createSearch(id, search);
+            return ResponseEntity.ok(Map.of("success", true, "search", saved));
+        } catch (ApiException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getSearches(@PathVariable Long id, HttpServletRequest request) {
+        ResponseEntity<?> denied = checkOwner(id, request);
+        if (denied != null) {
+            return denied;
+        }
+
+        List<SavedSearch> searches = savedSearchService.getSearches(id);
+        return ResponseEntity.ok(Map.of("success", true, "searches", searches));
+    }
+
+    @DeleteMapping("/{id}/{searchId}")
+    public ResponseEntity<?> deleteSearch(@PathVariable Long id,
+                                          @PathVariable Long searchId,
+                                          HttpServletRequest request) {
+        ResponseEntity<?> denied = checkOwner(id, request);
+        if (denied != null) {
+            return denied;
+        }
+
+        try {
+            savedSearchService.deleteSearch(id, searchId);
+            return ResponseEntity.ok(Map.of("success", true));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    // Null when the authenticated user owns the given account, otherwise the error response
+    private ResponseEntity<?> checkOwner(Long id, HttpServletRequest request) {
+        String authenticatedUsername = request.getUserPrincipal() != null ? request.getUserPrincipal().getName() : null;
+        if (authenticatedUsername == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("success", false, "error", "Authentication required"));
+        }
+
+        User authenticatedUser = userService.getUserByEmail(authenticatedUsername);
+        if (authenticatedUser == null || !authenticatedUser.getId().equals(id)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("success", false, "error", "You can only manage saved searches for your own account"));
+        }
+        return null;
+    }
+}
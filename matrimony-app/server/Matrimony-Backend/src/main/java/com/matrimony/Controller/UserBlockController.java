@@ -0,0 +1,107 @@
+package com.matrimony.Controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.matrimony.CustomExceptions.ApiException;
+import com.matrimony.CustomExceptions.ResourceNotFoundException;
+import com.matrimony.Entity.User;
+import com.matrimony.Entity.UserBlock;
+import com.matrimony.Service.UserBlockService;
+import com.matrimony.Service.UserService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/user/blocks")
+@CrossOrigin(origins = "http://localhost:3000")
+public class UserBlockController {
+
+    @Autowired
+    private UserBlockService userBlockService;
+
+    @Autowired
+    private UserService userService;
+
+    // Hide a profile from your own matches
+    @PostMapping("/{id}/hide/{otherId}")
+    public ResponseEntity<?> hide(@PathVariable Long id, @PathVariable Long otherId, HttpServletRequest request) {
+        ResponseEntity<?> denied = checkOwner(id, request);
+        if (denied != null) {
+            return denied;
+        }
+
+        try {
+            UserBlock hidden = userBlockService.hide(id, otherId);
+            return ResponseEntity.ok(Map.of("success", true, "block", hidden));
+        } catch (ApiException | ResourceNotFoundException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    // Block a user: neither of you sees the other in matches, and requests and messages are refused
+    @PostMapping("/{id}/block/{otherId}")
+    public ResponseEntity<?> block(@PathVariable Long id, @PathVariable Long otherId, HttpServletRequest request) {
+        ResponseEntity<?> denied = checkOwner(id, request);
+        if (denied != null) {
+            return denied;
+        }
+
+        try {
+            UserBlock blocked = userBlockService.block(id, otherId);
+            return ResponseEntity.ok(Map.of("success", true, "block", blocked));
+        } catch (ApiException | ResourceNotFoundException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}/{otherId}")
+    public ResponseEntity<?> remove(@PathVariable Long id, @PathVariable Long otherId, HttpServletRequest request) {
+        ResponseEntity<?> denied = checkOwner(id, request);
+        if (denied != null) {
+            return denied;
+        }
+
+        try {
+            userBlockService.remove(id, otherId);
+            return ResponseEntity.ok(Map.of("success", true));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getBlocks(@PathVariable Long id, HttpServletRequest request) {
+        ResponseEntity<?> denied = checkOwner(id, request);
+        if (denied != null) {
+            return denied;
+        }
+
+        List<UserBlock> blocks = userBlockService.getBlocks(id);
+        return ResponseEntity.ok(Map.of("success", true, "blocks", blocks));
+    }
+
+    // Null when the authenticated user owns the given account, otherwise the error response
+    private ResponseEntity<?> checkOwner(Long id, HttpServletRequest request) {
+        String authenticatedUsername = request.getUserPrincipal() != null ? request.getUserPrincipal().getName() : null;
+        if (authenticatedUsername == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("success", false, "error", "Authentication required"));
+        }
+
+        User authenticatedUser = userService.getUserByEmail(authenticatedUsername);
+        if (authenticatedUser == null || !authenticatedUser.getId().equals(id)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("success", false, "error", "You can only manage hidden and blocked users for your own account"));
+        }
+        return null;
+    }
+}
@@ -20,7 +20,6 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -124,8 +123,7 @@ public class UserController {
 
             // Total matches - handle gracefully if preferences are missing
             try {
-                List<User> matches = matchService.getMatches(userId);
-                stats.put("totalMatches", matches != null ? matches.size() : 0);
+                stats.put("totalMatches", matchService.countMatches(userId));
             } catch (Exception e) {
                 System.err.println("Error fetching matches for user " + userId + ": " + e.getMessage());
                 stats.put("totalMatches", 0);
@@ -200,9 +198,8 @@ public class UserController {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
                 }
                 
-                // This would need to be implemented in UserService
-                // For now, return a message
-                return ResponseEntity.ok("Preferences initialization endpoint - implement in UserService");
+                int created = userService.initializeMissingPreferences();
+                return ResponseEntity.ok(Map.of("success", true, "initialized", created));
             }
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
         } catch (Exception e) {
@@ -0,0 +1,24 @@
+package com.matrimony.Dao;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.matrimony.Entity.AcceptanceNeighbor;
+
+public interface AcceptanceNeighborDao extends JpaRepository<AcceptanceNeighbor, Long> {
+
+    List<AcceptanceNeighbor> findByUserIdIn(Collection<Long> userIds);
+
+    // User id, neighbor id and shared count of every row (used to build the in-memory lists)
+    @Query("SELECT n.userId, n.neighborId, n.sharedCount FROM AcceptanceNeighbor n")
+    List<Object[]> findAllEntries();
+
+    @Modifying
+    @Query("DELETE FROM AcceptanceNeighbor n WHERE n.userId IN :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,74 @@
+package com.matrimony.Dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.matrimony.Entity.Conversation;
+
+public interface ConversationDao extends JpaRepository<Conversation, Long> {
+
+    // Record a sent message: create the pair's row or move it forward, adding to the receiver's unread counter
+    @Modifying
+    @Query(value = """
+        INSERT INTO conversations (user_low_id, user_high_id, last_message_id, last_activity_at, unread_low, unread_high)
+        VALUES (:low, :high, :messageId, :at, :unreadLow, :unreadHigh)
+        ON DUPLICATE KEY UPDATE
+            last_message_id = GREATEST(last_message_id, VALUES(last_message_id)),
+            last_activity_at = GREATEST(last_activity_at, VALUES(last_activity_at)),
+            unread_low = unread_low + VALUES(unread_low),
+            unread_high = unread_high + VALUES(unread_high)
+        """, nativeQuery = true)
+    int recordMessage(@Param("low") Long userLowId,
+                      @Param("high") Long userHighId,
+                      @Param("messageId") Long messageId,
+                      @Param("at") LocalDateTime at,
+                      @Param("unreadLow") int unreadLow,
+                      @Param("unreadHigh") int unreadHigh);
+
+    // Take marked messages off one side's unread counter, never below zero
+    @Modifying
+    @Query("UPDATE Conversation c SET c.unreadLow = GREATEST(c.unreadLow - :count, 0) " +
+           "WHERE c.userLowId = :low AND c.userHighId = :high")
+    int markReadByLow(@Param("low") Long userLowId, @Param("high") Long userHighId, @Param("count") int count);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.unreadHigh = GREATEST(c.unreadHigh - :count, 0) " +
+           "WHERE c.userLowId = :low AND c.userHighId = :high")
+    int markReadByHigh(@Param("low") Long userLowId, @Param("high") Long userHighId, @Param("count") int count);
+
+    // Inbox rows, most recent activity first: peer id, peer first and last name, latest message id,
+    // sender id, content and timestamp, and the user's unread count. Two index range reads, one per side.
+    @Query(value = """
+        SELECT c.peer_id, u.first_name, u.last_name, m.id, m.sender_id, m.content, m.timestamp, c.unread
+          FROM (SELECT user_high_id AS peer_id, last_message_id, last_activity_at, unread_low AS unread
+                  FROM conversations WHERE user_low_id = :userId
+                UNION ALL
+                SELECT user_low_id, last_message_id, last_activity_at, unread_high
+                  FROM conversations WHERE user_high_id = :userId) c
+          JOIN messages m ON m.id = c.last_message_id
+          JOIN Users u ON u.id = c.peer_id
+         ORDER BY c.last_activity_at DESC, c.last_message_id DESC
+        """, nativeQuery = true)
+    List<Object[]> findInbox(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN c.userLowId = :userId THEN c.unreadLow ELSE c.unreadHigh END), 0) " +
+           "FROM Conversation c WHERE c.userLowId = :userId OR c.userHighId = :userId")
+    long countUnread(@Param("userId") Long userId);
+
+    // One-off fill from the message history for databases that predate the table
+    @Modifying
+    @Query(value = """
+        INSERT INTO conversations (user_low_id, user_high_id, last_message_id, last_activity_at, unread_low, unread_high)
+        SELECT LEAST(sender_id, receiver_id), GREATEST(sender_id, receiver_id), MAX(id), MAX(timestamp),
+               SUM(CASE WHEN receiver_id < sender_id AND is_read = FALSE THEN 1 ELSE 0 END),
+               SUM(CASE WHEN receiver_id > sender_id AND is_read = FALSE THEN 1 ELSE 0 END)
+          FROM messages
+         GROUP BY LEAST(sender_id, receiver_id), GREATEST(sender_id, receiver_id)
+        """, nativeQuery = true)
+    int backfillFromMessages();
+}
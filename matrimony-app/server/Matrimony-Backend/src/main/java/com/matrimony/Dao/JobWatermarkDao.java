@@ -0,0 +1,28 @@
+package com.matrimony.Dao;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.matrimony.Entity.JobWatermark;
+
+import jakarta.persistence.LockModeType;
+
+public interface JobWatermarkDao extends JpaRepository<JobWatermark, String> {
+
+    // Create the job's row if missing, so there is always a row for findForUpdate to lock
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO job_watermarks (job_name, watermark_at, watermark_id) VALUES (:jobName, :at, 0)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("jobName") String jobName, @Param("at") LocalDateTime at);
+
+    // SELECT ... FOR UPDATE: holds off other nodes running the same job until this transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM JobWatermark w WHERE w.jobName = :jobName")
+    Optional<JobWatermark> findForUpdate(@Param("jobName") String jobName);
+}
@@ -1,9 +1,13 @@
 package com.matrimony.Dao;
 
+import com.matrimony.Dto.MessageDto;
 import com.matrimony.Entity.Message;
 import com.matrimony.Entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -19,6 +23,25 @@ public interface MessageDao extends JpaRepository<Message, Long> {
     @Query("SELECT m FROM Message m WHERE m.sender = :user OR m.receiver = :user ORDER BY m.timestamp DESC")
     List<Message> findConversationsByUser(User user);
 
+    // One direction of a conversation older than beforeId, newest first. The (sender_id, receiver_id)
+    // index carries the primary key, so this is one ordered range read and no Users rows are read
+    @Query("SELECT new com.matrimony.Dto.MessageDto(m.id, m.sender.id, m.receiver.id, m.content, m.timestamp, m.isRead) " +
+           "FROM Message m " +
+           "WHERE m.sender.id = :senderId AND m.receiver.id = :receiverId AND m.id < :beforeId " +
+           "ORDER BY m.id DESC")
+    List<MessageDto> findDirectionPage(@Param("senderId") Long senderId,
+                                       @Param("receiverId") Long receiverId,
+                                       @Param("beforeId") Long beforeId,
+                                       Pageable pageable);
+
+    // Set-based mark-as-read; served by the (sender_id, receiver_id) index
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true " +
+           "WHERE m.receiver.id = :receiverId AND m.sender.id = :senderId AND m.isRead = false AND m.id <= :upToId")
+    int markRead(@Param("receiverId") Long receiverId,
+                 @Param("senderId") Long senderId,
+                 @Param("upToId") Long upToId);
+
     @Query("SELECT COUNT(m) FROM Message m WHERE m.receiver = :user AND m.isRead = false")
     int countUnreadMessages(User user);
 }
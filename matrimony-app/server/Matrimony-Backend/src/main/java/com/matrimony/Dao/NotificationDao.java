@@ -0,0 +1,23 @@
+package com.matrimony.Dao;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.matrimony.Entity.Notification;
+
+public interface NotificationDao extends JpaRepository<Notification, Long> {
+
+    // Newest notifications first
+    List<Notification> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
+    long countByUserIdAndReadFalse(Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.userId = :userId AND n.read = false")
+    int markAllRead(@Param("userId") Long userId);
+}
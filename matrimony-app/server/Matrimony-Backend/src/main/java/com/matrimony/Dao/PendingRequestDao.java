@@ -1,10 +1,16 @@
 package com.matrimony.Dao;
 
 import com.matrimony.Entity.PendingRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 public interface PendingRequestDao extends JpaRepository<PendingRequest, Long> {
 
   // Count pending requests received by user
@@ -27,4 +33,43 @@ public interface PendingRequestDao extends JpaRepository<PendingRequest, Long> {
        + "WHERE r.sender.id=:sender AND r.receiver.id=:receiver")
   boolean existsBySenderAndReceiver(@Param("sender") Long senderId,
                                     @Param("receiver") Long receiverId);
+
+  // Sender id, receiver id and status of every request (used to build the contact index)
+  @Query("SELECT r.sender.id, r.receiver.id, r.status FROM PendingRequest r")
+  List<Object[]> findAllPairs();
+
+  // Requests accepted before responded_at existed take their send time, so the watermark
+  // queries below can range-scan idx_pendingrequest_responded_at
+  @Modifying
+  @Query("UPDATE PendingRequest r SET r.respondedAt = r.timestamp WHERE r.status = 'ACCEPTED' AND r.respondedAt IS NULL")
+  int backfillAcceptedRespondedAt();
+
+  // Accepted requests after the (time, id) watermark, oldest first: id, sender id, receiver id, accepted at.
+  // The leading respondedAt >= bound keeps it a range read on (responded_at, id).
+  @Query("""
+    SELECT r.id, r.sender.id, r.receiver.id, r.respondedAt
+      FROM PendingRequest r
+     WHERE r.respondedAt >= :afterTime
+       AND r.respondedAt < :before
+       AND (r.respondedAt > :afterTime OR r.id > :afterId)
+       AND r.status = 'ACCEPTED'
+     ORDER BY r.respondedAt, r.id
+  """)
+  List<Object[]> findAcceptedAfter(@Param("afterTime") LocalDateTime afterTime,
+                                   @Param("afterId") long afterId,
+                                   @Param("before") LocalDateTime before,
+                                   Pageable pageable);
+
+  // Accepted connections of the given users up to and including the (time, id) watermark
+  @Query("""
+    SELECT r.sender.id, r.receiver.id
+      FROM PendingRequest r
+     WHERE r.status = 'ACCEPTED'
+       AND (r.sender.id IN :userIds OR r.receiver.id IN :userIds)
+       AND (r.respondedAt < :upToTime
+         OR (r.respondedAt = :upToTime AND r.id <= :upToId))
+  """)
+  List<Object[]> findAcceptedPairsUpTo(@Param("userIds") Collection<Long> userIds,
+                                       @Param("upToTime") LocalDateTime upToTime,
+                                       @Param("upToId") long upToId);
 }
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.matrimony.Entity.Preferences;
 import com.matrimony.Entity.User;
@@ -15,6 +16,10 @@ public interface PreferencesDao extends JpaRepository<Preferences, Long>
 	 List<Preferences> findByAgeAndLocationAndReligionAndCasteAndEducationAndProfessionAndGender(
 	            int age, String location, String religion, String caste,
 	            String education, String profession, String gender);
+
+	 // All stored preferences with their owner in one query (used to build the preference index)
+	 @Query("SELECT p FROM Preferences p JOIN FETCH p.user")
+	 List<Preferences> findAllWithUser();
 	}
 
 
@@ -0,0 +1,14 @@
+package com.matrimony.Dao;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.matrimony.Entity.SavedSearch;
+
+public interface SavedSearchDao extends JpaRepository<SavedSearch, Long> {
+
+    List<SavedSearch> findByUserIdOrderByIdAsc(Long userId);
+
+    long countByUserId(Long userId);
+}
@@ -0,0 +1,26 @@
+package com.matrimony.Dao;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.matrimony.Entity.UserBlock;
+
+public interface UserBlockDao extends JpaRepository<UserBlock, Long> {
+
+    Optional<UserBlock> findByUserIdAndBlockedUserId(Long userId, Long blockedUserId);
+
+    List<UserBlock> findByUserIdOrderByIdDesc(Long userId);
+
+    // Rows in either direction between two users
+    @Query("SELECT b FROM UserBlock b WHERE (b.userId = :u1 AND b.blockedUserId = :u2) " +
+           "OR (b.userId = :u2 AND b.blockedUserId = :u1)")
+    List<UserBlock> findBetween(@Param("u1") Long userId1, @Param("u2") Long userId2);
+
+    // User id, blocked user id and type of every row (used to build the exclusion index)
+    @Query("SELECT b.userId, b.blockedUserId, b.type FROM UserBlock b")
+    List<Object[]> findAllEntries();
+}
@@ -1,7 +1,9 @@
 package com.matrimony.Dao;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -10,25 +12,71 @@ import org.springframework.data.repository.query.Param;
 import com.matrimony.Entity.User;
 
 public interface UserDao extends JpaRepository<User, Long> {
+
+    /*
+     * Match filter used while the match index warms up, with the same semantics as
+     * MatchCriteria.accepts: any one satisfied criterion matches, and :wildcard is set
+     * when a criterion is unconstrained. Value sets are normalized; the case-insensitive
+     * collation compares them the same way the index does. Contacted, hidden and
+     * blocking users are left out like ContactIndex and ExclusionIndex leave them out.
+     */
+    String MATCH_FILTER = "u.role = 'USER' AND u.isActive = true AND u.profileApproved = true " +
+           "AND u.id <> :userId " +
+           "AND (:wildcard = true " +
+           "OR u.age BETWEEN :ageMin AND :ageMax " +
+           "OR u.gender = :gender " +
+           "OR u.caste IN :castes " +
+           "OR u.religion IN :religions " +
+           "OR u.location IN :locations " +
+           "OR u.profession IN :professions) " +
+           "AND NOT EXISTS (SELECT r FROM PendingRequest r WHERE " +
+           "(r.sender.id = :userId AND r.receiver = u) " +
+           "OR (r.sender = u AND r.receiver.id = :userId AND r.status = 'ACCEPTED')) " +
+           "AND NOT EXISTS (SELECT b FROM UserBlock b WHERE " +
+           "(b.userId = :userId AND b.blockedUserId = u.id) " +
+           "OR (b.userId = u.id AND b.blockedUserId = :userId AND b.type = 'BLOCK'))";
+
     Optional<User> findByEmail(String email);
 
-    @Query("SELECT u FROM User u WHERE " +
-           "( (:age IS NULL OR u.age = :age) " +
-           "OR (:caste IS NULL OR u.caste = :caste) " +
-           "OR (:gender IS NULL OR u.gender = :gender) " +
-           "OR (:location IS NULL OR u.location = :location) " +
-           "OR (:profession IS NULL OR u.profession = :profession) " +
-           "OR (:religion IS NULL OR u.religion = :religion) ) " +  // Group all OR conditions
-           "AND u.id != :userId " +  // Exclude the current user after matching preferences
-           "AND u.role = 'USER' " +  // Only include regular users, exclude admins
-           "AND u.isActive = true " +  // Only include active users
-           "AND u.profileApproved = true")  // Only include approved profiles
-    List<User> findMatchesByPreferences(@Param("age") Integer age,
-                                        @Param("caste") String caste,
-                                        @Param("gender") User.Gender gender,
-                                        @Param("location") String location,
-                                        @Param("profession") String profession,
-                                        @Param("religion") String religion,
-                                        @Param("userId") Long userId);  // Added userId parameter
+    @Query("SELECT u FROM User u WHERE " + MATCH_FILTER)
+    List<User> findMatchesByCriteria(@Param("userId") Long userId,
+                                     @Param("wildcard") boolean wildcard,
+                                     @Param("ageMin") int ageMin,
+                                     @Param("ageMax") int ageMax,
+                                     @Param("gender") User.Gender gender,
+                                     @Param("castes") Set<String> castes,
+                                     @Param("religions") Set<String> religions,
+                                     @Param("locations") Set<String> locations,
+                                     @Param("professions") Set<String> professions);
+
+    // Same filter as findMatchesByCriteria, counted in the database instead of loaded
+    @Query("SELECT COUNT(u) FROM User u WHERE " + MATCH_FILTER)
+    long countMatchesByCriteria(@Param("userId") Long userId,
+                                @Param("wildcard") boolean wildcard,
+                                @Param("ageMin") int ageMin,
+                                @Param("ageMax") int ageMax,
+                                @Param("gender") User.Gender gender,
+                                @Param("castes") Set<String> castes,
+                                @Param("religions") Set<String> religions,
+                                @Param("locations") Set<String> locations,
+                                @Param("professions") Set<String> professions);
+
+    // Profiles that are allowed to appear in matches (used to build the match index)
+    @Query("SELECT u FROM User u WHERE u.role = 'USER' AND u.isActive = true AND u.profileApproved = true")
+    List<User> findMatchableUsers();
+
+    // Users inserted or modified since a match snapshot was taken, matchable or not
+    @Query("SELECT u FROM User u WHERE u.updatedOn >= :since OR u.id > :maxId")
+    List<User> findChangedSince(@Param("since") LocalDateTime since, @Param("maxId") long maxId);
+
+    // Id, hobbies and bio of every user who filled in either, for the interest index
+    @Query("SELECT u.id, u.hobbies, u.bio FROM User u WHERE u.hobbies IS NOT NULL OR u.bio IS NOT NULL")
+    List<Object[]> findInterestTexts();
+
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    long findMaxId();
+
+    @Query("SELECT u FROM User u WHERE NOT EXISTS (SELECT p FROM Preferences p WHERE p.user = u)")
+    List<User> findUsersWithoutPreferences();
 }
 	
\ No newline at end of file
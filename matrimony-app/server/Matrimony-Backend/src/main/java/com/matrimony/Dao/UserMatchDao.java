@@ -0,0 +1,57 @@
+package com.matrimony.Dao;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.matrimony.Entity.UserMatch;
+
+public interface UserMatchDao extends JpaRepository<UserMatch, Long> {
+
+    // First page of a user's matches, best first
+    List<UserMatch> findByUserIdOrderByScoreDescCandidateIdAsc(Long userId, Pageable pageable);
+
+    // Keyset page: everything ranked after (score, candidateId)
+    @Query("SELECT m FROM UserMatch m WHERE m.userId = :userId " +
+           "AND (m.score < :score OR (m.score = :score AND m.candidateId > :candidateId)) " +
+           "ORDER BY m.score DESC, m.candidateId ASC")
+    List<UserMatch> findPageAfter(@Param("userId") Long userId,
+                                  @Param("score") int score,
+                                  @Param("candidateId") Long candidateId,
+                                  Pageable pageable);
+
+    // Users that currently have a materialized match list
+    @Query("SELECT DISTINCT m.userId FROM UserMatch m")
+    List<Long> findMaterializedUserIds();
+
+    // Row count and lowest score of each given user's list, as (userId, count, minScore)
+    @Query("SELECT m.userId, COUNT(m), MIN(m.score) FROM UserMatch m WHERE m.userId IN :userIds GROUP BY m.userId")
+    List<Object[]> findListStats(@Param("userIds") List<Long> userIds);
+
+    // Drop everything ranked below the first keep rows of a user's list; the derived
+    // table is materialized, which lets MySQL delete from the table it reads
+    @Modifying
+    @Query(value = """
+        DELETE m FROM user_matches m
+        JOIN (SELECT id FROM user_matches WHERE user_id = :userId
+              ORDER BY score DESC, candidate_id ASC
+              LIMIT 18446744073709551615 OFFSET :keep) beyond ON beyond.id = m.id
+        """, nativeQuery = true)
+    int trimToSize(@Param("userId") Long userId, @Param("keep") int keep);
+
+    @Modifying
+    @Query("DELETE FROM UserMatch m WHERE m.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserMatch m WHERE m.candidateId = :candidateId")
+    int deleteByCandidateId(@Param("candidateId") Long candidateId);
+
+    @Modifying
+    @Query("DELETE FROM UserMatch m WHERE m.userId = :userId AND m.candidateId = :candidateId")
+    int deleteByUserIdAndCandidateId(@Param("userId") Long userId, @Param("candidateId") Long candidateId);
+}
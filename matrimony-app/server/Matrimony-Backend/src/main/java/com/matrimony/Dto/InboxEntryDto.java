@@ -0,0 +1,30 @@
+package com.matrimony.Dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One inbox row: the other participant of a conversation, its latest message and
+ * how many of the peer's messages the user has not read yet.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxEntryDto {
+
+	private Long peerId;
+	private String peerFirstName;
+	private String peerLastName;
+
+	private Long lastMessageId;
+	private Long lastMessageSenderId;
+	private String lastMessageContent;
+	private LocalDateTime lastMessageAt;
+
+	private long unreadCount;
+}
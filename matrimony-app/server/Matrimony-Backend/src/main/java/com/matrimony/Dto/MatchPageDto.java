@@ -0,0 +1,20 @@
+package com.matrimony.Dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchPageDto {
+
+	private List<MatchResultDto> matches;
+
+	// Opaque cursor for the next page, null when there are no more matches
+	private String nextCursor;
+}
@@ -0,0 +1,22 @@
+package com.matrimony.Dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchPreviewDto {
+
+	private long totalMatches;
+
+	// Matches per value, largest first, for the most common values only
+	private Map<String, Long> byLocation;
+	private Map<String, Long> byReligion;
+	private Map<String, Long> byProfession;
+}
@@ -0,0 +1,28 @@
+package com.matrimony.Dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchRecomputeStatusDto {
+
+	private boolean running;
+
+	private int totalUsers;
+
+	private int processedUsers;
+
+	private LocalDateTime startedAt;
+
+	private LocalDateTime finishedAt;
+
+	// Message of the failure that stopped the last run, if any
+	private String error;
+}
@@ -0,0 +1,20 @@
+package com.matrimony.Dto;
+
+import com.matrimony.Entity.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchResultDto {
+
+	private User user;
+
+	// Sum of the weights of every Preferences field the user satisfies
+	private int score;
+}
@@ -0,0 +1,25 @@
+package com.matrimony.Dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A message without its sender and receiver entities, only their ids.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageDto {
+
+	private Long id;
+	private Long senderId;
+	private Long receiverId;
+	private String content;
+	private LocalDateTime timestamp;
+	private boolean read;
+}
@@ -0,0 +1,21 @@
+package com.matrimony.Dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessagePageDto {
+
+	// Oldest first, so the page can be prepended above what the client already shows
+	private List<MessageDto> messages;
+
+	// Pass as beforeId to load older messages; null when this is the start of the conversation
+	private Long nextBeforeId;
+}
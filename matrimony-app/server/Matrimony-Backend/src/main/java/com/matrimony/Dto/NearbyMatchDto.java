@@ -0,0 +1,20 @@
+package com.matrimony.Dto;
+
+import com.matrimony.Entity.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyMatchDto {
+
+	private User user;
+
+	// Great-circle distance between the two profile locations, to 0.1 km
+	private double distanceKm;
+}
@@ -1,5 +1,7 @@
 package com.matrimony.Dto;
 
+import java.util.Set;
+
 import lombok.Getter;
 import lombok.Setter;
 
@@ -14,5 +16,13 @@ public class PreferencesDto extends BaseDto{
 	private String education;
 	private String profession;
 	private String gender;
+	private Integer ageMin;
+	private Integer ageMax;
+	private Integer withinKm;
+	private Set<String> locations;
+	private Set<String> religions;
+	private Set<String> castes;
+	private Set<String> educations;
+	private Set<String> professions;
 
 }
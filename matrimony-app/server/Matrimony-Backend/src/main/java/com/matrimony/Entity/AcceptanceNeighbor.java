@@ -0,0 +1,39 @@
+package com.matrimony.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One entry of a user's co-acceptance neighbor list: sharedCount users are
+ * connected with both userId and neighborId. Each user keeps only their top
+ * neighbors, maintained by CoAcceptanceJob.
+ */
+@Entity
+@Table(name = "acceptance_neighbors",
+       uniqueConstraints = @UniqueConstraint(name = "unique_user_neighbor", columnNames = {"user_id", "neighbor_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class AcceptanceNeighbor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "neighbor_id", nullable = false)
+    private Long neighborId;
+
+    @Column(name = "shared_count", nullable = false)
+    private int sharedCount;
+
+    public AcceptanceNeighbor(Long userId, Long neighborId, int sharedCount) {
+        this.userId = userId;
+        this.neighborId = neighborId;
+        this.sharedCount = sharedCount;
+    }
+}
@@ -0,0 +1,50 @@
+package com.matrimony.Entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Summary row per pair of users who exchanged messages, keyed by the unordered
+ * pair (lower id first). Kept current by MessageService in the same transaction
+ * as the message writes, so the inbox and unread badges never scan messages.
+ */
+@Entity
+@Table(name = "conversations",
+       uniqueConstraints = @UniqueConstraint(name = "unique_conversation_pair", columnNames = {"user_low_id", "user_high_id"}),
+       indexes = {
+           @Index(name = "idx_conversations_low_activity", columnList = "user_low_id, last_activity_at"),
+           @Index(name = "idx_conversations_high_activity", columnList = "user_high_id, last_activity_at")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class Conversation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_low_id", nullable = false)
+    private Long userLowId;
+
+    @Column(name = "user_high_id", nullable = false)
+    private Long userHighId;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_activity_at", nullable = false)
+    private LocalDateTime lastActivityAt;
+
+    // Messages the lower-id user has not read yet
+    @Column(name = "unread_low", nullable = false)
+    private int unreadLow;
+
+    // Messages the higher-id user has not read yet
+    @Column(name = "unread_high", nullable = false)
+    private int unreadHigh;
+}
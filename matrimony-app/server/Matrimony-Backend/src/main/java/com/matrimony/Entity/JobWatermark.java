@@ -0,0 +1,30 @@
+package com.matrimony.Entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * How far an incremental batch job has processed its input, as a (time, id)
+ * position so rows sharing a timestamp are neither skipped nor repeated.
+ */
+@Entity
+@Table(name = "job_watermarks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class JobWatermark {
+
+    @Id
+    @Column(name = "job_name", length = 64)
+    private String jobName;
+
+    @Column(name = "watermark_at", nullable = false)
+    private LocalDateTime watermarkAt;
+
+    @Column(name = "watermark_id", nullable = false)
+    private long watermarkId;
+}
@@ -6,7 +6,8 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages",
+       indexes = @Index(name = "idx_messages_sender_receiver", columnList = "sender_id, receiver_id"))
 @Getter
 @Setter
 @NoArgsConstructor
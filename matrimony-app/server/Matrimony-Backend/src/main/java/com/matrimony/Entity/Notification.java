@@ -0,0 +1,54 @@
+package com.matrimony.Entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "notifications",
+       indexes = @Index(name = "idx_notifications_user", columnList = "user_id, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class Notification {
+
+    // Type constants
+    public static final String TYPE_SAVED_SEARCH_MATCH = "SAVED_SEARCH_MATCH";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Recipient
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 30)
+    private String type;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    // Profile the notification is about, if any
+    @Column(name = "related_user_id")
+    private Long relatedUserId;
+
+    @Column(name = "is_read", nullable = false)
+    private boolean read = false;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public Notification(Long userId, String type, String message, Long relatedUserId) {
+        this.userId = userId;
+        this.type = type;
+        this.message = message;
+        this.relatedUserId = relatedUserId;
+    }
+}
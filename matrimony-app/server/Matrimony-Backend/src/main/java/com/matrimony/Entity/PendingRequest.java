@@ -5,7 +5,8 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "pendingrequest")
+@Table(name = "pendingrequest",
+       indexes = @Index(name = "idx_pendingrequest_responded_at", columnList = "responded_at, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -36,6 +37,10 @@ public class PendingRequest {
     @Column(nullable = false)
     private LocalDateTime timestamp;
 
+    // When the receiver accepted or rejected; null while pending
+    @Column(name = "responded_at")
+    private LocalDateTime respondedAt;
+
     // Constructors
     public PendingRequest(User sender, User receiver, String status) {
         this.sender = sender;
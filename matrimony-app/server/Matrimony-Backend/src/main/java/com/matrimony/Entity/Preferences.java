@@ -1,6 +1,16 @@
 package com.matrimony.Entity;
 
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 import lombok.AllArgsConstructor;
@@ -23,7 +33,49 @@ public class Preferences extends BaseEntity {
 	private String education;
 	private String profession;
 	private String gender;
-	
+
+	// Optional age range; when either bound is set it replaces the exact age
+	@Column(name = "age_min")
+	private Integer ageMin;
+
+	@Column(name = "age_max")
+	private Integer ageMax;
+
+	// Optional radius: profiles within this many km of a preferred location also satisfy it
+	@Column(name = "within_km")
+	private Integer withinKm;
+
+	// Optional value sets; a non-empty set replaces the single value of the same field.
+	// Loaded eagerly, one subselect per set, since the match indexes read them outside a session.
+	@ElementCollection(fetch = FetchType.EAGER)
+	@Fetch(FetchMode.SUBSELECT)
+	@CollectionTable(name = "preference_locations", joinColumns = @JoinColumn(name = "preferences_id"))
+	@Column(name = "location")
+	private Set<String> locations = new HashSet<>();
+
+	@ElementCollection(fetch = FetchType.EAGER)
+	@Fetch(FetchMode.SUBSELECT)
+	@CollectionTable(name = "preference_religions", joinColumns = @JoinColumn(name = "preferences_id"))
+	@Column(name = "religion")
+	private Set<String> religions = new HashSet<>();
+
+	@ElementCollection(fetch = FetchType.EAGER)
+	@Fetch(FetchMode.SUBSELECT)
+	@CollectionTable(name = "preference_castes", joinColumns = @JoinColumn(name = "preferences_id"))
+	@Column(name = "caste")
+	private Set<String> castes = new HashSet<>();
+
+	@ElementCollection(fetch = FetchType.EAGER)
+	@Fetch(FetchMode.SUBSELECT)
+	@CollectionTable(name = "preference_educations", joinColumns = @JoinColumn(name = "preferences_id"))
+	@Column(name = "education")
+	private Set<String> educations = new HashSet<>();
+
+	@ElementCollection(fetch = FetchType.EAGER)
+	@Fetch(FetchMode.SUBSELECT)
+	@CollectionTable(name = "preference_professions", joinColumns = @JoinColumn(name = "preferences_id"))
+	@Column(name = "profession")
+	private Set<String> professions = new HashSet<>();
 
 	@OneToOne
 	@JoinColumn(name = "user_id", nullable = false)
@@ -0,0 +1,61 @@
+package com.matrimony.Entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A user's stored search, alerted on when a newly approved profile satisfies it.
+ * Unlike Preferences every filled-in field must match; empty fields match anyone.
+ */
+@Entity
+@Table(name = "saved_searches",
+       indexes = @Index(name = "idx_saved_searches_user", columnList = "user_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "age_min")
+    private Integer ageMin;
+
+    @Column(name = "age_max")
+    private Integer ageMax;
+
+    @Column(name = "gender", length = 10)
+    private String gender;
+
+    @Column(name = "religion", length = 50)
+    private String religion;
+
+    @Column(name = "caste", length = 50)
+    private String caste;
+
+    @Column(name = "location", length = 100)
+    private String location;
+
+    @Column(name = "profession", length = 100)
+    private String profession;
+
+    @Column(name = "education", length = 100)
+    private String education;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
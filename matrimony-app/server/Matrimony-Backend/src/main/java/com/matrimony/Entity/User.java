@@ -9,13 +9,16 @@ import lombok.Setter;
 import lombok.ToString;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.UpdateTimestamp;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 @Entity
-@Table(name = "Users")
+@Table(name = "Users", indexes = @Index(name = "idx_users_updated_on", columnList = "updated_on"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -121,6 +124,11 @@ public class User {
     @com.fasterxml.jackson.annotation.JsonProperty("profileApproved")
     private Boolean profileApproved = false; // Default is not approved
 
+    // Bumped on every update; the match snapshot reconciles users changed after it was taken
+    @UpdateTimestamp
+    @Column(name = "updated_on")
+    private LocalDateTime updatedOn;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
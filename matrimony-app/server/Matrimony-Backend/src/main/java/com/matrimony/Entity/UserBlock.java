@@ -0,0 +1,51 @@
+package com.matrimony.Entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * userId hid or blocked blockedUserId. A hide only takes the profile out of the
+ * user's own matches; a block works both ways and also stops requests and messages.
+ */
+@Entity
+@Table(name = "user_blocks",
+       uniqueConstraints = @UniqueConstraint(name = "unique_user_blocked", columnNames = {"user_id", "blocked_user_id"}),
+       indexes = @Index(name = "idx_user_blocks_blocked", columnList = "blocked_user_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class UserBlock {
+
+    // Type constants
+    public static final String TYPE_HIDE = "HIDE";
+    public static final String TYPE_BLOCK = "BLOCK";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "blocked_user_id", nullable = false)
+    private Long blockedUserId;
+
+    @Column(nullable = false, length = 10)
+    private String type;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public UserBlock(Long userId, Long blockedUserId, String type) {
+        this.userId = userId;
+        this.blockedUserId = blockedUserId;
+        this.type = type;
+    }
+}
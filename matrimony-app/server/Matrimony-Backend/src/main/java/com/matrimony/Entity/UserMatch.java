@@ -0,0 +1,42 @@
+package com.matrimony.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One precomputed match: candidateId is a match for userId with the given score.
+ * Rows are maintained incrementally when profiles or preferences change.
+ */
+@Entity
+@Table(name = "user_matches",
+       uniqueConstraints = @UniqueConstraint(name = "unique_user_candidate", columnNames = {"user_id", "candidate_id"}),
+       indexes = {
+           @Index(name = "idx_user_matches_ranking", columnList = "user_id, score, candidate_id"),
+           @Index(name = "idx_user_matches_candidate", columnList = "candidate_id")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class UserMatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "candidate_id", nullable = false)
+    private Long candidateId;
+
+    @Column(name = "score", nullable = false)
+    private int score;
+
+    public UserMatch(Long userId, Long candidateId, int score) {
+        this.userId = userId;
+        this.candidateId = candidateId;
+        this.score = score;
+    }
+}
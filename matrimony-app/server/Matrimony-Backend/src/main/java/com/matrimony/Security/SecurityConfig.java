@@ -38,6 +38,7 @@ public class SecurityConfig {
                 .requestMatchers("/user/**").authenticated() // All other user endpoints require authentication
                 .requestMatchers("/user/preferences/**").authenticated() // Preferences endpoints require authentication
                 .requestMatchers("/messages/**").authenticated() // All message endpoints require authentication
+                .requestMatchers("/ws/**").permitAll() // WebSocket handshake; the STOMP CONNECT frame carries the JWT
                 .requestMatchers("/pending-requests/**").authenticated() // Pending requests require authentication
                 .anyRequest().authenticated() // All other routes require authentication
             )
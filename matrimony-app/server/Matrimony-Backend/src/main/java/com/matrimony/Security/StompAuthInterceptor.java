@@ -0,0 +1,72 @@
+package com.matrimony.Security;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import com.matrimony.CustomExceptions.AuthenticationException;
+
+/**
+ * Authenticates STOMP sessions. Browsers cannot set headers on the WebSocket
+ * handshake, so the JWT travels in the CONNECT frame instead and the session's
+ * principal becomes the token's email, the same name the HTTP filter uses.
+ * Subscriptions are limited to the caller's own /user destinations and SEND
+ * frames to the application's /app handlers.
+ */
+@Component
+public class StompAuthInterceptor implements ChannelInterceptor {
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Override
+	public Message<?> preSend(Message<?> message, MessageChannel channel) {
+		StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+		if (accessor == null || accessor.getCommand() == null) {
+			return message;
+		}
+
+		if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+			String authHeader = accessor.getFirstNativeHeader("Authorization");
+			if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+				throw new AuthenticationException("Authentication required");
+			}
+
+			String email;
+			try {
+				String jwt = authHeader.substring(7);
+				email = jwtUtil.extractEmail(jwt);
+				if (email == null || jwtUtil.isTokenExpired(jwt)) {
+					throw new AuthenticationException("Invalid or expired token");
+				}
+			} catch (AuthenticationException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new AuthenticationException("Invalid or expired token");
+			}
+			accessor.setUser(new UsernamePasswordAuthenticationToken(email, null, List.of()));
+		} else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+			// Other users' queues are only reachable through the user destination resolver
+			String destination = accessor.getDestination();
+			if (accessor.getUser() == null || destination == null || !destination.startsWith("/user/")) {
+				throw new AuthenticationException("Subscriptions are limited to your own queues");
+			}
+		} else if (StompCommand.SEND.equals(accessor.getCommand())) {
+			// Sending straight to /queue or /user would let the broker deliver a forged
+			// message, so clients may only reach the @MessageMapping handlers
+			String destination = accessor.getDestination();
+			if (accessor.getUser() == null || destination == null || !destination.startsWith("/app/")) {
+				throw new AuthenticationException("Messages can only be sent to /app destinations");
+			}
+		}
+		return message;
+	}
+}
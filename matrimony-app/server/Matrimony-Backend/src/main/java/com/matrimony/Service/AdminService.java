@@ -18,6 +18,12 @@ public class AdminService {
     @Autowired
     private UserDao userDao;
 
+    @Autowired
+    private MatchMaintenanceService matchMaintenanceService;
+
+    @Autowired
+    private SavedSearchService savedSearchService;
+
     // Dashboard Statistics
     public Map<String, Object> getDashboardStats() {
         Map<String, Object> stats = new HashMap<>();
@@ -104,7 +110,9 @@ public class AdminService {
         if (updatedUser.getIsActive() != null) existingUser.setIsActive(updatedUser.getIsActive());
         if (updatedUser.getProfileApproved() != null) existingUser.setProfileApproved(updatedUser.getProfileApproved());
         
-        return userDao.save(existingUser);
+        User savedUser = userDao.save(existingUser);
+        matchMaintenanceService.onProfileChanged(savedUser);
+        return savedUser;
     }
 
     public void softDeleteUser(Long id) {
@@ -116,6 +124,7 @@ public class AdminService {
         User user = userOpt.get();
         user.setIsActive(false);
         userDao.save(user);
+        matchMaintenanceService.onProfileChanged(user);
     }
 
     public void restoreUser(Long id) {
@@ -127,6 +136,7 @@ public class AdminService {
         User user = userOpt.get();
         user.setIsActive(true);
         userDao.save(user);
+        matchMaintenanceService.onProfileChanged(user);
     }
 
     // Profile Management
@@ -147,8 +157,15 @@ public class AdminService {
         }
         
         User user = userOpt.get();
+        boolean newlyApproved = !Boolean.TRUE.equals(user.getProfileApproved());
         user.setProfileApproved(true);
         userDao.save(user);
+        matchMaintenanceService.onProfileChanged(user);
+
+        // Only a first approval (or re-approval) is news to saved searches
+        if (newlyApproved) {
+            savedSearchService.onProfileApproved(user);
+        }
     }
 
     public void rejectProfile(Long id, String reason) {
@@ -162,6 +179,7 @@ public class AdminService {
         
         // You could add a rejection reason field to the User entity if needed
         userDao.save(user);
+        matchMaintenanceService.onProfileChanged(user);
     }
 
     public void revokeProfile(Long id) {
@@ -173,6 +191,7 @@ public class AdminService {
         User user = userOpt.get();
         user.setProfileApproved(false);
         userDao.save(user);
+        matchMaintenanceService.onProfileChanged(user);
     }
 
     // Admin Authentication
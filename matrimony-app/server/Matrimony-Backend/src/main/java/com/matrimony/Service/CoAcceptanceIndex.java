@@ -0,0 +1,120 @@
+package com.matrimony.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.matrimony.Dao.AcceptanceNeighborDao;
+
+/**
+ * In-memory copy of the acceptance_neighbors table, used to add a "people like
+ * the ones you connected with" bonus to a ranked pool of matches. A candidate's
+ * support is the sum of its shared counts with each of the viewer's connections.
+ */
+@Component
+public class CoAcceptanceIndex {
+
+    @Autowired
+    private AcceptanceNeighborDao acceptanceNeighborDao;
+
+    @Autowired
+    private ContactIndex contactIndex;
+
+    @Autowired
+    private MatchWeights matchWeights;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, Map<Integer, Integer>> neighborsByUser = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> entries = acceptanceNeighborDao.findAllEntries();
+
+        lock.writeLock().lock();
+        try {
+            neighborsByUser.clear();
+            for (Object[] entry : entries) {
+                neighborsByUser.computeIfAbsent(MatchIndex.toKey((Long) entry[0]), k -> new HashMap<>())
+                        .put(MatchIndex.toKey((Long) entry[1]), (Integer) entry[2]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        System.out.println("Co-acceptance index built with " + neighborsByUser.size() + " neighbor lists");
+    }
+
+    // Replace the lists of users whose rows the batch job just rewrote
+    public void replace(Map<Long, Map<Long, Integer>> lists) {
+        lock.writeLock().lock();
+        try {
+            lists.forEach((userId, neighbors) -> {
+                Map<Integer, Integer> keyed = new HashMap<>();
+                neighbors.forEach((neighborId, count) -> keyed.put(MatchIndex.toKey(neighborId), count));
+                if (keyed.isEmpty()) {
+                    neighborsByUser.remove(MatchIndex.toKey(userId));
+                } else {
+                    neighborsByUser.put(MatchIndex.toKey(userId), keyed);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-order a ranked pool with each candidate's co-acceptance bonus added to its
+     * score and keep the best k. Pool scores are in MatchWeights.BONUS_SCALE units.
+     * The best-supported candidate gets the full weight.
+     */
+    public List<ScoredMatch> rerank(Long viewerId, List<ScoredMatch> pool, int k) {
+        List<ScoredMatch> reranked = new ArrayList<>(pool.size());
+        RoaringBitmap connections = contactIndex.getConnected(viewerId);
+        int weight = matchWeights.getCoAcceptance();
+
+        Map<Integer, Integer> support = new HashMap<>();
+        if (!connections.isEmpty() && weight > 0) {
+            RoaringBitmap poolIds = new RoaringBitmap();
+            pool.forEach(match -> poolIds.add(MatchIndex.toKey(match.userId())));
+
+            lock.readLock().lock();
+            try {
+                connections.forEach((int connection) -> {
+                    Map<Integer, Integer> neighbors = neighborsByUser.get(connection);
+                    if (neighbors != null) {
+                        neighbors.forEach((neighbor, count) -> {
+                            if (poolIds.contains(neighbor)) {
+                                support.merge(neighbor, count, Integer::sum);
+                            }
+                        });
+                    }
+                });
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int maxSupport = support.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        for (ScoredMatch match : pool) {
+            Integer candidateSupport = support.get(MatchIndex.toKey(match.userId()));
+            if (candidateSupport == null) {
+                reranked.add(match);
+            } else {
+                int bonus = (int) Math.round(weight * MatchWeights.BONUS_SCALE * (double) candidateSupport / maxSupport);
+                reranked.add(new ScoredMatch(match.userId(), match.score() + bonus));
+            }
+        }
+
+        reranked.sort(ScoredMatch.RANKING);
+        return reranked.size() > k ? new ArrayList<>(reranked.subList(0, k)) : reranked;
+    }
+}
@@ -0,0 +1,216 @@
+package com.matrimony.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.matrimony.Dao.AcceptanceNeighborDao;
+import com.matrimony.Dao.JobWatermarkDao;
+import com.matrimony.Dao.PendingRequestDao;
+import com.matrimony.Entity.AcceptanceNeighbor;
+import com.matrimony.Entity.JobWatermark;
+
+/**
+ * Incremental item-to-item co-acceptance: two profiles are neighbors when the
+ * same users are connected with both. Each run reads only the acceptances after
+ * the stored watermark and, for a new connection (u, v), adds one to every pair
+ * (v, w) for w already connected with u and (u, w) for w already connected with v.
+ *
+ * Only each user's top neighbors are stored, so counts for pairs that fell off a
+ * list restart from zero; the lists approximate the full co-acceptance counts.
+ *
+ * Each batch locks the job's watermark row, so when several nodes run the schedule
+ * a batch is applied by exactly one of them.
+ */
+@Service
+public class CoAcceptanceJob {
+
+    private static final String JOB_NAME = "co-acceptance";
+
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Acceptances newer than this may still be committing; the next run picks them up
+    private static final Duration SETTLE_MARGIN = Duration.ofMinutes(1);
+
+    @Autowired
+    private PendingRequestDao pendingRequestDao;
+
+    @Autowired
+    private AcceptanceNeighborDao acceptanceNeighborDao;
+
+    @Autowired
+    private JobWatermarkDao jobWatermarkDao;
+
+    @Autowired
+    private CoAcceptanceIndex coAcceptanceIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${match.co-acceptance.neighbors-per-user:50}")
+    private int neighborsPerUser;
+
+    // Acceptances applied per transaction
+    @Value("${match.co-acceptance.batch-size:500}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // Acceptances from before responded_at was recorded get their send time, once per database
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillRespondedAt() {
+        Integer rows = transactionTemplate.execute(status -> pendingRequestDao.backfillAcceptedRespondedAt());
+        if (rows != null && rows > 0) {
+            System.out.println("Accepted requests backfilled with a response time: " + rows);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${match.co-acceptance.interval-ms:900000}",
+               initialDelayString = "${match.co-acceptance.interval-ms:900000}")
+    public void scheduledRun() {
+        run();
+    }
+
+    /**
+     * Apply every acceptance since the last run. Returns how many were applied, or
+     * -1 when a run is already in progress.
+     */
+    public int run() {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            LocalDateTime before = LocalDateTime.now().minus(SETTLE_MARGIN);
+            // Separate transaction: inserting and then locking in one would let two nodes deadlock
+            transactionTemplate.executeWithoutResult(status -> jobWatermarkDao.insertIfAbsent(JOB_NAME, START));
+            int applied = 0;
+            int batch;
+            do {
+                Batch result = transactionTemplate.execute(status -> applyBatch(before));
+                // The in-memory lists follow once the rows are committed
+                coAcceptanceIndex.replace(result.lists());
+                batch = result.applied();
+                applied += batch;
+            } while (batch == batchSize);
+
+            if (applied > 0) {
+                System.out.println("Co-acceptance neighbors updated from " + applied + " new acceptances");
+            }
+            return applied;
+        } catch (Exception e) {
+            System.err.println("Co-acceptance update failed: " + e.getMessage());
+            throw e;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private record Batch(int applied, Map<Long, Map<Long, Integer>> lists) {
+    }
+
+    // One batch of acceptances, the rewritten neighbor lists and the new watermark in one
+    // transaction, holding the watermark row's lock throughout
+    private Batch applyBatch(LocalDateTime before) {
+        JobWatermark watermark = jobWatermarkDao.findForUpdate(JOB_NAME)
+                .orElseThrow(() -> new IllegalStateException("Missing watermark row for " + JOB_NAME));
+        List<Object[]> accepted = pendingRequestDao.findAcceptedAfter(
+                watermark.getWatermarkAt(), watermark.getWatermarkId(), before, PageRequest.of(0, batchSize));
+        if (accepted.isEmpty()) {
+            return new Batch(0, Map.of());
+        }
+
+        // Connections of everyone in this batch as of the watermark
+        Set<Long> endpoints = new HashSet<>();
+        for (Object[] row : accepted) {
+            endpoints.add((Long) row[1]);
+            endpoints.add((Long) row[2]);
+        }
+        Map<Long, Set<Long>> connections = new HashMap<>();
+        for (Object[] pair : pendingRequestDao.findAcceptedPairsUpTo(
+                endpoints, watermark.getWatermarkAt(), watermark.getWatermarkId())) {
+            connect(connections, (Long) pair[0], (Long) pair[1]);
+        }
+
+        // Shared-count increments, applying the batch in acceptance order
+        Map<Long, Map<Long, Integer>> increments = new HashMap<>();
+        for (Object[] row : accepted) {
+            Long u = (Long) row[1];
+            Long v = (Long) row[2];
+            if (connections.getOrDefault(u, Set.of()).contains(v)) {
+                continue; // requests were accepted in both directions
+            }
+            for (Long w : connections.getOrDefault(u, Set.of())) {
+                increment(increments, v, w);
+            }
+            for (Long w : connections.getOrDefault(v, Set.of())) {
+                increment(increments, u, w);
+            }
+            connect(connections, u, v);
+        }
+
+        Map<Long, Map<Long, Integer>> lists = new HashMap<>();
+        if (!increments.isEmpty()) {
+            increments.keySet().forEach(userId -> lists.put(userId, new HashMap<>()));
+            for (AcceptanceNeighbor row : acceptanceNeighborDao.findByUserIdIn(increments.keySet())) {
+                lists.get(row.getUserId()).put(row.getNeighborId(), row.getSharedCount());
+            }
+            increments.forEach((userId, deltas) -> {
+                Map<Long, Integer> list = lists.get(userId);
+                deltas.forEach((neighborId, delta) -> list.merge(neighborId, delta, Integer::sum));
+                lists.put(userId, topNeighbors(list));
+            });
+
+            acceptanceNeighborDao.deleteByUserIdIn(lists.keySet());
+            List<AcceptanceNeighbor> rows = new ArrayList<>();
+            lists.forEach((userId, list) ->
+                    list.forEach((neighborId, count) -> rows.add(new AcceptanceNeighbor(userId, neighborId, count))));
+            acceptanceNeighborDao.saveAll(rows);
+        }
+
+        Object[] last = accepted.get(accepted.size() - 1);
+        watermark.setWatermarkAt((LocalDateTime) last[3]);
+        watermark.setWatermarkId((Long) last[0]);
+        jobWatermarkDao.save(watermark);
+        return new Batch(accepted.size(), lists);
+    }
+
+    private Map<Long, Integer> topNeighbors(Map<Long, Integer> list) {
+        Map<Long, Integer> top = new LinkedHashMap<>();
+        list.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(neighborsPerUser)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    private static void connect(Map<Long, Set<Long>> connections, Long u, Long v) {
+        connections.computeIfAbsent(u, k -> new HashSet<>()).add(v);
+        connections.computeIfAbsent(v, k -> new HashSet<>()).add(u);
+    }
+
+    private static void increment(Map<Long, Map<Long, Integer>> increments, Long a, Long b) {
+        if (a.equals(b)) {
+            return;
+        }
+        increments.computeIfAbsent(a, k -> new HashMap<>()).merge(b, 1, Integer::sum);
+        increments.computeIfAbsent(b, k -> new HashMap<>()).merge(a, 1, Integer::sum);
+    }
+}
@@ -0,0 +1,464 @@
+package com.matrimony.Service;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntUnaryOperator;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.matrimony.Entity.User;
+
+/**
+ * Columnar snapshot of matchable profiles used for scoring.
+ *
+ * Each profile occupies one slot across a set of parallel primitive arrays.
+ * Categorical text fields are dictionary-encoded to int codes, so scoring a
+ * candidate is a handful of int comparisons instead of string equality on an
+ * entity. Slots are looked up by user id through a dense int array.
+ */
+@Component
+public class ColumnarProfileStore {
+
+    // Stored for profiles without an age; never equal to a preferred age
+    static final int NO_AGE = Integer.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // age, gender, religion, caste, location, profession, education
+    private static final int SCORED_FIELDS = 7;
+
+    // Candidate sets at least this share of all profiles are scored column-wise
+    private static final int DENSE_FRACTION_PERCENT = 25;
+
+    // Slots scored per kernel call in column-wise scoring
+    private static final int SCORE_CHUNK = 4096;
+
+    // Per-thread score buffer for one chunk
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[SCORE_CHUNK]);
+
+    private ScoringKernel kernel = new ScalarScoringKernel();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ValueDictionary religions = new ValueDictionary();
+    private final ValueDictionary castes = new ValueDictionary();
+    private final ValueDictionary locations = new ValueDictionary();
+    private final ValueDictionary professions = new ValueDictionary();
+    private final ValueDictionary educations = new ValueDictionary();
+    private final ValueDictionary motherTongues = new ValueDictionary();
+
+    private int size = 0;
+    private int[] userIds = new int[INITIAL_CAPACITY];
+    private int[] ages = new int[INITIAL_CAPACITY];
+    private int[] genders = new int[INITIAL_CAPACITY];
+    private int[] religionCodes = new int[INITIAL_CAPACITY];
+    private int[] casteCodes = new int[INITIAL_CAPACITY];
+    private int[] locationCodes = new int[INITIAL_CAPACITY];
+    private int[] professionCodes = new int[INITIAL_CAPACITY];
+    private int[] educationCodes = new int[INITIAL_CAPACITY];
+    private int[] motherTongueCodes = new int[INITIAL_CAPACITY];
+
+    // slotByUser[userId] is the profile's slot, or -1 when it is not stored
+    private int[] slotByUser = new int[0];
+
+    // "scalar" or "vector"; both produce identical scores, see VectorScoringKernelTest (mvn test -Pvector)
+    @Value("${match.scoring.engine:scalar}")
+    public void setScoringEngine(String engine) {
+        kernel = ScoringKernel.forEngine(engine);
+        System.out.println("Match scoring engine: " + kernel.getClass().getSimpleName());
+    }
+
+    public void rebuild(List<User> users) {
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            Arrays.fill(slotByUser, -1);
+            religions.clear();
+            castes.clear();
+            locations.clear();
+            professions.clear();
+            educations.clear();
+            motherTongues.clear();
+
+            for (User user : users) {
+                if (MatchIndex.isMatchable(user)) {
+                    put(user);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Store, refresh or drop the user's columns depending on whether they are matchable
+    public void reindex(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(MatchIndex.toKey(user.getId()));
+            if (MatchIndex.isMatchable(user)) {
+                put(user);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Value as first entered by a user, for showing a normalized facet value
+    public String displayValue(MatchFacet facet, String normalizedValue) {
+        ValueDictionary dictionary = switch (facet) {
+            case LOCATION -> locations;
+            case RELIGION -> religions;
+            case PROFESSION -> professions;
+        };
+
+        lock.readLock().lock();
+        try {
+            int code = dictionary.lookup(normalizedValue);
+            return code > ValueDictionary.NULL_CODE ? dictionary.display(code) : normalizedValue;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visit every stored profile with its normalized values, e.g. to rebuild the
+     * candidate bitmaps from a loaded snapshot without going back to the database.
+     */
+    public void forEachProfile(ProfileVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < size; slot++) {
+                visitor.visit(userIds[slot],
+                        ages[slot] != NO_AGE ? ages[slot] : null,
+                        genders[slot] != ValueDictionary.NULL_CODE ? User.Gender.values()[genders[slot] - 1] : null,
+                        castes.decode(casteCodes[slot]),
+                        religions.decode(religionCodes[slot]),
+                        locations.decode(locationCodes[slot]),
+                        professions.decode(professionCodes[slot]));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public interface ProfileVisitor {
+        void visit(int userId, Integer age, User.Gender gender, String caste,
+                   String religion, String location, String profession);
+    }
+
+    // Dictionaries, then each column for the used slots; ProfileSnapshot frames this with a header
+    void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            for (ValueDictionary dictionary : dictionaries()) {
+                dictionary.writeTo(out);
+            }
+            out.writeInt(size);
+            for (int[] column : columns()) {
+                for (int slot = 0; slot < size; slot++) {
+                    out.writeInt(column[slot]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void readFrom(ByteBuffer in) {
+        lock.writeLock().lock();
+        try {
+            for (ValueDictionary dictionary : dictionaries()) {
+                dictionary.readFrom(in);
+            }
+
+            int count = in.getInt();
+            Arrays.fill(slotByUser, -1);
+            ensureCapacity(count, 0);
+            for (int[] column : columns()) {
+                in.asIntBuffer().get(column, 0, count);
+                in.position(in.position() + count * Integer.BYTES);
+            }
+
+            size = count;
+            int maxUserId = -1;
+            for (int slot = 0; slot < size; slot++) {
+                maxUserId = Math.max(maxUserId, userIds[slot]);
+            }
+            ensureCapacity(size, maxUserId + 1);
+            for (int slot = 0; slot < size; slot++) {
+                slotByUser[userIds[slot]] = slot;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ValueDictionary[] dictionaries() {
+        return new ValueDictionary[] { religions, castes, locations, professions, educations, motherTongues };
+    }
+
+    // Fixed order shared by writeTo and readFrom; must be called after ensureCapacity
+    private int[][] columns() {
+        return new int[][] { userIds, ages, genders, religionCodes, casteCodes, locationCodes,
+                professionCodes, educationCodes, motherTongueCodes };
+    }
+
+    /**
+     * Score the given candidates against the criteria and keep the best k after the
+     * optional cursor position. Large candidate sets are scored column-wise by the
+     * configured kernel in fixed-size chunks of slots; small ones slot by slot. Either
+     * way only candidates entering the heap allocate.
+     */
+    public List<ScoredMatch> topMatches(MatchCriteria criteria, RoaringBitmap candidates, MatchWeights weights,
+                                        ScoredMatch after, int k, IntUnaryOperator extraScore) {
+        PriorityQueue<ScoredMatch> heap = new PriorityQueue<>(k + 1, ScoredMatch.RANKING.reversed());
+
+        lock.readLock().lock();
+        try {
+            Query query = new Query(criteria, weights);
+            int[] slots = slotByUser;
+
+            if (candidates.getCardinality() >= (long) size * DENSE_FRACTION_PERCENT / 100) {
+                // Score the columns a chunk of slots at a time so the buffer stays the same
+                // size however many profiles are stored
+                int[] scores = SCRATCH.get();
+                int[][] columns = query.columns();
+                int[][] lows = query.lows();
+                int[][] highs = query.highs();
+                int[] fieldWeights = query.weights();
+                for (int from = 0; from < size; from += SCORE_CHUNK) {
+                    int count = Math.min(SCORE_CHUNK, size - from);
+                    kernel.score(columns, lows, highs, fieldWeights, query.base, from, count, scores);
+                    for (int i = 0; i < count; i++) {
+                        int userId = userIds[from + i];
+                        if (candidates.contains(userId)) {
+                            int score = scores[i];
+                            if (extraScore != null) {
+                                score += extraScore.applyAsInt(userId);
+                            }
+                            consider(heap, after, k, userId, score);
+                        }
+                    }
+                }
+            } else {
+                candidates.forEach((int userId) -> {
+                    int slot = userId < slots.length ? slots[userId] : -1;
+                    if (slot < 0) {
+                        return;
+                    }
+
+                    int score = query.score(slot);
+                    if (extraScore != null) {
+                        score += extraScore.applyAsInt(userId);
+                    }
+                    consider(heap, after, k, userId, score);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<ScoredMatch> ranked = new ArrayList<>(heap);
+        ranked.sort(ScoredMatch.RANKING);
+        return ranked;
+    }
+
+    private static void consider(PriorityQueue<ScoredMatch> heap, ScoredMatch after, int k, int userId, int score) {
+        // Keyset cursor: skip everything ranked at or before the previous page's last entry
+        if (after != null && (score > after.score() || (score == after.score() && userId <= after.userId()))) {
+            return;
+        }
+
+        if (heap.size() < k) {
+            heap.offer(new ScoredMatch(userId, score));
+        } else {
+            ScoredMatch worst = heap.peek();
+            if (score > worst.score() || (score == worst.score() && userId < worst.userId())) {
+                heap.poll();
+                heap.offer(new ScoredMatch(userId, score));
+            }
+        }
+    }
+
+    /**
+     * Criteria encoded against the current dictionaries. Each constrained field is a
+     * list of inclusive code ranges: one range for an age range, a single-code range
+     * per accepted value for a value set. Unconstrained fields are folded into base,
+     * and fields none of whose values exist in the dictionary are dropped since no
+     * profile can satisfy them. Must be built and used while holding the read lock.
+     */
+    private final class Query {
+
+        private int base;
+        private int fields;
+        private final int[][] columns = new int[SCORED_FIELDS][];
+        private final int[][] lows = new int[SCORED_FIELDS][];
+        private final int[][] highs = new int[SCORED_FIELDS][];
+        private final int[] weights = new int[SCORED_FIELDS];
+
+        Query(MatchCriteria criteria, MatchWeights matchWeights) {
+            if (!criteria.hasAgeFilter()) {
+                base += matchWeights.getAge();
+            } else {
+                // NO_AGE sits below every lower bound, so profiles without an age never match
+                int from = criteria.getAgeMin() != null ? criteria.getAgeMin() : NO_AGE + 1;
+                int to = criteria.getAgeMax() != null ? criteria.getAgeMax() : Integer.MAX_VALUE;
+                if (from <= to) {
+                    constrain(ages, new int[] { from }, new int[] { to }, matchWeights.getAge());
+                }
+            }
+
+            if (criteria.getGender() == null) {
+                base += matchWeights.getGender();
+            } else {
+                int[] code = { criteria.getGender().ordinal() + 1 };
+                constrain(genders, code, code, matchWeights.getGender());
+            }
+
+            constrain(religionCodes, religions, criteria.getReligions(), matchWeights.getReligion());
+            constrain(casteCodes, castes, criteria.getCastes(), matchWeights.getCaste());
+            constrain(locationCodes, locations, criteria.getLocations(), matchWeights.getLocation());
+            constrain(professionCodes, professions, criteria.getProfessions(), matchWeights.getProfession());
+            constrain(educationCodes, educations, criteria.getEducations(), matchWeights.getEducation());
+        }
+
+        int[][] columns() {
+            return Arrays.copyOf(columns, fields);
+        }
+
+        int[][] lows() {
+            return Arrays.copyOf(lows, fields);
+        }
+
+        int[][] highs() {
+            return Arrays.copyOf(highs, fields);
+        }
+
+        int[] weights() {
+            return Arrays.copyOf(weights, fields);
+        }
+
+        int score(int slot) {
+            int score = base;
+            for (int f = 0; f < fields; f++) {
+                int value = columns[f][slot];
+                int[] low = lows[f];
+                int[] high = highs[f];
+                for (int r = 0; r < low.length; r++) {
+                    if (value >= low[r] && value <= high[r]) {
+                        score += weights[f];
+                        break;
+                    }
+                }
+            }
+            return score;
+        }
+
+        private void constrain(int[] column, ValueDictionary dictionary, Set<String> values, int weight) {
+            if (values == null) {
+                base += weight;
+                return;
+            }
+
+            int[] codes = values.stream()
+                    .mapToInt(dictionary::lookup)
+                    .filter(code -> code != ValueDictionary.NO_MATCH)
+                    .toArray();
+            if (codes.length > 0) {
+                constrain(column, codes, codes, weight);
+            }
+        }
+
+        private void constrain(int[] column, int[] low, int[] high, int weight) {
+            columns[fields] = column;
+            lows[fields] = low;
+            highs[fields] = high;
+            weights[fields] = weight;
+            fields++;
+        }
+    }
+
+    // Callers must hold the write lock
+    private void put(User user) {
+        int userId = MatchIndex.toKey(user.getId());
+        ensureCapacity(size + 1, userId + 1);
+
+        int slot = size++;
+        userIds[slot] = userId;
+        ages[slot] = user.getAge() != null ? user.getAge() : NO_AGE;
+        genders[slot] = user.getGender() != null ? user.getGender().ordinal() + 1 : ValueDictionary.NULL_CODE;
+        religionCodes[slot] = religions.encode(user.getReligion());
+        casteCodes[slot] = castes.encode(user.getCaste());
+        locationCodes[slot] = locations.encode(user.getLocation());
+        professionCodes[slot] = professions.encode(user.getProfession());
+        educationCodes[slot] = educations.encode(user.getEducation());
+        motherTongueCodes[slot] = motherTongues.encode(user.getMotherTongue());
+        slotByUser[userId] = slot;
+    }
+
+    // Callers must hold the write lock. Moves the last slot into the freed one.
+    private void removeInternal(int userId) {
+        if (userId >= slotByUser.length || slotByUser[userId] < 0) {
+            return;
+        }
+
+        int slot = slotByUser[userId];
+        int last = --size;
+        if (slot != last) {
+            userIds[slot] = userIds[last];
+            ages[slot] = ages[last];
+            genders[slot] = genders[last];
+            religionCodes[slot] = religionCodes[last];
+            casteCodes[slot] = casteCodes[last];
+            locationCodes[slot] = locationCodes[last];
+            professionCodes[slot] = professionCodes[last];
+            educationCodes[slot] = educationCodes[last];
+            motherTongueCodes[slot] = motherTongueCodes[last];
+            slotByUser[userIds[slot]] = slot;
+        }
+        slotByUser[userId] = -1;
+    }
+
+    // Callers must hold the write lock
+    private void ensureCapacity(int slots, int userIdBound) {
+        if (slots > userIds.length) {
+            int capacity = Math.max(slots, userIds.length * 2);
+            userIds = Arrays.copyOf(userIds, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            genders = Arrays.copyOf(genders, capacity);
+            religionCodes = Arrays.copyOf(religionCodes, capacity);
+            casteCodes = Arrays.copyOf(casteCodes, capacity);
+            locationCodes = Arrays.copyOf(locationCodes, capacity);
+            professionCodes = Arrays.copyOf(professionCodes, capacity);
+            educationCodes = Arrays.copyOf(educationCodes, capacity);
+            motherTongueCodes = Arrays.copyOf(motherTongueCodes, capacity);
+        }
+        if (userIdBound > slotByUser.length) {
+            int oldLength = slotByUser.length;
+            slotByUser = Arrays.copyOf(slotByUser, Math.max(userIdBound, oldLength * 2));
+            Arrays.fill(slotByUser, oldLength, slotByUser.length, -1);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.matrimony.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.matrimony.Dao.PendingRequestDao;
+import com.matrimony.Entity.PendingRequest;
+
+/**
+ * Per-user bitmaps of who a user has already reached out to, so matches can drop
+ * them server-side instead of the client asking /has-sent for every card.
+ *
+ * A user's contacted set holds everyone they sent a request to, plus everyone they
+ * are connected with (an accepted request in either direction).
+ */
+@Component
+public class ContactIndex {
+
+    @Autowired
+    private PendingRequestDao pendingRequestDao;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, RoaringBitmap> contacted = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> connected = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> pairs = pendingRequestDao.findAllPairs();
+
+        lock.writeLock().lock();
+        try {
+            contacted.clear();
+            connected.clear();
+            for (Object[] pair : pairs) {
+                addInternal((Long) pair[0], (Long) pair[1], (String) pair[2]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        System.out.println("Contact index built with " + pairs.size() + " requests");
+    }
+
+    // Record a request that was sent or whose status changed
+    public void record(PendingRequest request) {
+        lock.writeLock().lock();
+        try {
+            addInternal(request.getSender().getId(), request.getReceiver().getId(), request.getStatus());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Users that should no longer be suggested to the given user. Returns a copy.
+     */
+    public RoaringBitmap getContacted(Long userId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap bitmap = contacted.get(MatchIndex.toKey(userId));
+            return bitmap != null ? bitmap.clone() : new RoaringBitmap();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Users with an accepted request in either direction. Returns a copy.
+    public RoaringBitmap getConnected(Long userId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap bitmap = connected.get(MatchIndex.toKey(userId));
+            return bitmap != null ? bitmap.clone() : new RoaringBitmap();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean hasContacted(Long userId, Long otherUserId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap bitmap = contacted.get(MatchIndex.toKey(userId));
+            return bitmap != null && bitmap.contains(MatchIndex.toKey(otherUserId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers must hold the write lock
+    private void addInternal(Long senderId, Long receiverId, String status) {
+        int sender = MatchIndex.toKey(senderId);
+        int receiver = MatchIndex.toKey(receiverId);
+
+        contacted.computeIfAbsent(sender, k -> new RoaringBitmap()).add(receiver);
+
+        if (PendingRequest.STATUS_ACCEPTED.equals(status)) {
+            contacted.computeIfAbsent(receiver, k -> new RoaringBitmap()).add(sender);
+            connected.computeIfAbsent(sender, k -> new RoaringBitmap()).add(receiver);
+            connected.computeIfAbsent(receiver, k -> new RoaringBitmap()).add(sender);
+        }
+    }
+}
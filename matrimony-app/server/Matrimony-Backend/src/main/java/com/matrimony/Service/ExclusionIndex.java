@@ -0,0 +1,130 @@
+package com.matrimony.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.matrimony.Dao.UserBlockDao;
+import com.matrimony.Entity.UserBlock;
+
+/**
+ * Per-user bitmaps built from hides and blocks, so matching, requests and
+ * messaging can check them with a bitmap lookup instead of another join.
+ *
+ * A user's excluded set holds everyone they hid or blocked plus everyone who
+ * blocked them; the blocked set holds blocks in either direction only.
+ */
+@Component
+public class ExclusionIndex {
+
+    @Autowired
+    private UserBlockDao userBlockDao;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, RoaringBitmap> excluded = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> blocked = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> entries = userBlockDao.findAllEntries();
+
+        lock.writeLock().lock();
+        try {
+            excluded.clear();
+            blocked.clear();
+            for (Object[] entry : entries) {
+                addInternal((Long) entry[0], (Long) entry[1], (String) entry[2]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        System.out.println("Exclusion index built with " + entries.size() + " hides and blocks");
+    }
+
+    /**
+     * Replace what is recorded between two users with the given rows, which are
+     * all the hides and blocks between them in either direction.
+     */
+    public void refreshPair(Long userId1, Long userId2, List<UserBlock> rows) {
+        int a = MatchIndex.toKey(userId1);
+        int b = MatchIndex.toKey(userId2);
+
+        lock.writeLock().lock();
+        try {
+            removeFrom(excluded, a, b);
+            removeFrom(excluded, b, a);
+            removeFrom(blocked, a, b);
+            removeFrom(blocked, b, a);
+            for (UserBlock row : rows) {
+                addInternal(row.getUserId(), row.getBlockedUserId(), row.getType());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Users that must not appear in the given user's matches. Returns a copy.
+     */
+    public RoaringBitmap getExcluded(Long userId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap bitmap = excluded.get(MatchIndex.toKey(userId));
+            return bitmap != null ? bitmap.clone() : new RoaringBitmap();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isExcluded(Long userId, Long otherUserId) {
+        return contains(excluded, userId, otherUserId);
+    }
+
+    // Whether either user blocked the other
+    public boolean isBlocked(Long userId, Long otherUserId) {
+        return contains(blocked, userId, otherUserId);
+    }
+
+    private boolean contains(Map<Integer, RoaringBitmap> index, Long userId, Long otherUserId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap bitmap = index.get(MatchIndex.toKey(userId));
+            return bitmap != null && bitmap.contains(MatchIndex.toKey(otherUserId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers must hold the write lock
+    private void addInternal(Long userId, Long blockedUserId, String type) {
+        int user = MatchIndex.toKey(userId);
+        int other = MatchIndex.toKey(blockedUserId);
+
+        excluded.computeIfAbsent(user, k -> new RoaringBitmap()).add(other);
+        if (UserBlock.TYPE_BLOCK.equals(type)) {
+            excluded.computeIfAbsent(other, k -> new RoaringBitmap()).add(user);
+            blocked.computeIfAbsent(user, k -> new RoaringBitmap()).add(other);
+            blocked.computeIfAbsent(other, k -> new RoaringBitmap()).add(user);
+        }
+    }
+
+    // Callers must hold the write lock
+    private static void removeFrom(Map<Integer, RoaringBitmap> index, int user, int other) {
+        RoaringBitmap bitmap = index.get(user);
+        if (bitmap != null) {
+            bitmap.remove(other);
+            if (bitmap.isEmpty()) {
+                index.remove(user);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.matrimony.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Offline place-name lookup backed by the bundled geo/gazetteer.csv, so location
+ * strings are placed on the map without calling a geocoding service.
+ */
+@Component
+public class Gazetteer {
+
+    private static final String RESOURCE = "geo/gazetteer.csv";
+
+    private final Map<String, GeoPoint> places = new HashMap<>();
+
+    public Gazetteer() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ClassPathResource(RESOURCE).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(",");
+                places.put(MatchIndex.normalize(columns[0]),
+                        new GeoPoint(Double.parseDouble(columns[1].trim()), Double.parseDouble(columns[2].trim())));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load " + RESOURCE, e);
+        }
+    }
+
+    /**
+     * Coordinates for a free-text location, or null when it is not a known place.
+     * "Pune, Maharashtra" resolves through its first part.
+     */
+    public GeoPoint resolve(String location) {
+        String normalized = MatchIndex.normalize(location);
+        if (normalized == null || normalized.isEmpty()) {
+            return null;
+        }
+
+        GeoPoint point = places.get(normalized);
+        int comma = normalized.indexOf(',');
+        if (point == null && comma > 0) {
+            point = places.get(normalized.substring(0, comma).trim());
+        }
+        return point;
+    }
+}
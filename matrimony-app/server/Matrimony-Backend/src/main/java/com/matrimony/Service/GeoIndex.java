@@ -0,0 +1,140 @@
+package com.matrimony.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Grid index over the distinct location strings used on profiles, placed through
+ * the Gazetteer. Answers "which location strings lie within N km of here", which
+ * lets distance preferences reuse the per-location bitmaps of the match index.
+ */
+@Component
+public class GeoIndex {
+
+    // About 55 km of latitude per cell
+    private static final double CELL_DEGREES = 0.5;
+
+    private static final double KM_PER_DEGREE = 111.2;
+
+    @Autowired
+    private Gazetteer gazetteer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Normalized location string -> where it is; strings that could not be placed map to null
+    private final Map<String, GeoPoint> pointByLocation = new HashMap<>();
+    private final Map<Long, List<String>> locationsByCell = new HashMap<>();
+
+    // Make a profile location available to distance queries; cheap for strings already seen
+    public void register(String location) {
+        String normalized = MatchIndex.normalize(location);
+        if (normalized == null || normalized.isEmpty()) {
+            return;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (pointByLocation.containsKey(normalized)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        GeoPoint point = gazetteer.resolve(normalized);
+        lock.writeLock().lock();
+        try {
+            if (!pointByLocation.containsKey(normalized)) {
+                pointByLocation.put(normalized, point);
+                if (point != null) {
+                    locationsByCell.computeIfAbsent(cellOf(point), c -> new ArrayList<>()).add(normalized);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public GeoPoint locate(String location) {
+        return gazetteer.resolve(location);
+    }
+
+    /**
+     * Known location strings within km of the centre with their distance, nearest first.
+     */
+    public Map<String, Double> locationsWithin(GeoPoint center, double km) {
+        List<Map.Entry<String, Double>> found = new ArrayList<>();
+
+        double latSpan = km / KM_PER_DEGREE;
+        double lonSpan = km / (KM_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(center.latitude()))));
+        long minLat = cell(center.latitude() - latSpan);
+        long maxLat = cell(center.latitude() + latSpan);
+        long minLon = cell(center.longitude() - lonSpan);
+        long maxLon = cell(center.longitude() + lonSpan);
+
+        lock.readLock().lock();
+        try {
+            for (long lat = minLat; lat <= maxLat; lat++) {
+                for (long lon = minLon; lon <= maxLon; lon++) {
+                    List<String> locations = locationsByCell.get(key(lat, lon));
+                    if (locations == null) {
+                        continue;
+                    }
+                    for (String location : locations) {
+                        double distance = center.distanceKm(pointByLocation.get(location));
+                        if (distance <= km) {
+                            found.add(Map.entry(location, distance));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        found.sort(Map.Entry.<String, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Double> result = new LinkedHashMap<>();
+        found.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    /**
+     * Widen the criteria's preferred locations to every known location within its
+     * withinKm of any of them. Criteria without a distance are returned unchanged.
+     */
+    public MatchCriteria expand(MatchCriteria criteria) {
+        if (criteria.getWithinKm() == null || criteria.getLocations() == null) {
+            return criteria;
+        }
+
+        Set<String> locations = new HashSet<>(criteria.getLocations());
+        for (String preferred : criteria.getLocations()) {
+            GeoPoint center = gazetteer.resolve(preferred);
+            if (center != null) {
+                locations.addAll(locationsWithin(center, criteria.getWithinKm()).keySet());
+            }
+        }
+        return criteria.withLocations(locations);
+    }
+
+    private static long cellOf(GeoPoint point) {
+        return key(cell(point.latitude()), cell(point.longitude()));
+    }
+
+    private static long cell(double degrees) {
+        return (long) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long key(long latCell, long lonCell) {
+        return (latCell << 32) | (lonCell & 0xffffffffL);
+    }
+}
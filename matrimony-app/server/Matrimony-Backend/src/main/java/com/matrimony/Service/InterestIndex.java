@@ -0,0 +1,181 @@
+package com.matrimony.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.matrimony.Dao.UserDao;
+import com.matrimony.Entity.User;
+
+/**
+ * Inverted index over the words in each user's hobbies and bio. Used to add a
+ * shared-interests bonus to an already ranked list of matches: the Jaccard
+ * similarity of the two users' word sets, scaled by match.weight.interests.
+ *
+ * Only the pool handed to rerank is scored, so the cost grows with the page size
+ * rather than with the number of profiles.
+ */
+@Component
+public class InterestIndex {
+
+    private static final int MIN_TERM_LENGTH = 3;
+
+    // Filler words that would make every bio look alike
+    private static final Set<String> STOP_WORDS = Set.of(
+            "and", "the", "for", "with", "who", "are", "was", "you", "your", "our", "have", "has",
+            "from", "that", "this", "like", "love", "enjoy", "also", "very", "into", "about", "some",
+            "being", "been", "will", "would", "can", "looking", "someone", "person", "life", "time");
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private MatchWeights matchWeights;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, RoaringBitmap> usersByTerm = new HashMap<>();
+    private final Map<Integer, Set<String>> termsByUser = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = userDao.findInterestTexts();
+
+        lock.writeLock().lock();
+        try {
+            usersByTerm.clear();
+            termsByUser.clear();
+            for (Object[] row : rows) {
+                add(MatchIndex.toKey((Long) row[0]), tokenize((String) row[1], (String) row[2]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        System.out.println("Interest index built with " + termsByUser.size() + " profiles and "
+                + usersByTerm.size() + " distinct terms");
+    }
+
+    // Hobbies or bio edited
+    public void reindex(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        int key = MatchIndex.toKey(user.getId());
+        Set<String> terms = tokenize(user.getHobbies(), user.getBio());
+
+        lock.writeLock().lock();
+        try {
+            remove(key);
+            add(key, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-order a ranked pool with each candidate's shared-interests bonus added to
+     * its score and keep the best k. Pool scores are in MatchWeights.BONUS_SCALE units,
+     * so even a small similarity moves a candidate. Candidates keep their pool score
+     * when either side has no indexed words.
+     */
+    public List<ScoredMatch> rerank(Long viewerId, List<ScoredMatch> pool, int k) {
+        List<ScoredMatch> reranked = new ArrayList<>(pool.size());
+        int weight = matchWeights.getInterests();
+
+        lock.readLock().lock();
+        try {
+            Set<String> viewerTerms = termsByUser.get(MatchIndex.toKey(viewerId));
+            if (viewerTerms == null || weight <= 0) {
+                reranked.addAll(pool);
+            } else {
+                RoaringBitmap poolIds = new RoaringBitmap();
+                pool.forEach(match -> poolIds.add(MatchIndex.toKey(match.userId())));
+
+                // Shared word counts from the postings of the viewer's words, restricted to the pool
+                Map<Integer, Integer> shared = new HashMap<>();
+                for (String term : viewerTerms) {
+                    RoaringBitmap postings = usersByTerm.get(term);
+                    if (postings != null) {
+                        RoaringBitmap.and(postings, poolIds).forEach((int id) -> shared.merge(id, 1, Integer::sum));
+                    }
+                }
+
+                for (ScoredMatch match : pool) {
+                    int key = MatchIndex.toKey(match.userId());
+                    Integer common = shared.get(key);
+                    if (common == null) {
+                        reranked.add(match);
+                        continue;
+                    }
+                    int union = viewerTerms.size() + termsByUser.get(key).size() - common;
+                    int bonus = (int) Math.round(weight * MatchWeights.BONUS_SCALE * (double) common / union);
+                    reranked.add(new ScoredMatch(match.userId(), match.score() + bonus));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        reranked.sort(ScoredMatch.RANKING);
+        return reranked.size() > k ? new ArrayList<>(reranked.subList(0, k)) : reranked;
+    }
+
+    // Lower-cased words of both fields, without short words and stop words
+    static Set<String> tokenize(String hobbies, String bio) {
+        Set<String> terms = new HashSet<>();
+        addTerms(terms, hobbies);
+        addTerms(terms, bio);
+        return terms;
+    }
+
+    private static void addTerms(Set<String> terms, String text) {
+        if (text == null) {
+            return;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (word.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(word)) {
+                terms.add(word);
+            }
+        }
+    }
+
+    // Callers must hold the write lock
+    private void add(int key, Set<String> terms) {
+        if (terms.isEmpty()) {
+            return;
+        }
+        termsByUser.put(key, terms);
+        for (String term : terms) {
+            usersByTerm.computeIfAbsent(term, t -> new RoaringBitmap()).add(key);
+        }
+    }
+
+    // Callers must hold the write lock
+    private void remove(int key) {
+        Set<String> terms = termsByUser.remove(key);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            RoaringBitmap users = usersByTerm.get(term);
+            if (users != null) {
+                users.remove(key);
+                if (users.isEmpty()) {
+                    usersByTerm.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.matrimony.Service;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.matrimony.Entity.Preferences;
+import com.matrimony.Entity.User;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Normalized view of a user's Preferences as the match index sees it.
+ * Text fields are sets of accepted values and age is an inclusive range with
+ * optionally open ends. A null set, or an age range without bounds, means
+ * "no constraint" and is satisfied by every profile. withinKm, when set, is
+ * applied by GeoIndex.expand, which adds every nearby location to the set.
+ */
+@Getter
+@ToString
+public class MatchCriteria {
+
+    private final Integer ageMin;
+    private final Integer ageMax;
+    private final User.Gender gender;
+    private final Set<String> castes;
+    private final Set<String> religions;
+    private final Set<String> locations;
+    private final Set<String> professions;
+    private final Set<String> educations;
+    private final Integer withinKm;
+
+    private MatchCriteria(Integer ageMin, Integer ageMax, User.Gender gender, Set<String> castes, Set<String> religions,
+                          Set<String> locations, Set<String> professions, Set<String> educations, Integer withinKm) {
+        this.ageMin = ageMin;
+        this.ageMax = ageMax;
+        this.gender = gender;
+        this.castes = castes;
+        this.religions = religions;
+        this.locations = locations;
+        this.professions = professions;
+        this.educations = educations;
+        this.withinKm = withinKm;
+    }
+
+    public static MatchCriteria from(Preferences preferences) {
+        boolean ageRange = preferences.getAgeMin() != null || preferences.getAgeMax() != null;
+        return new MatchCriteria(
+                ageRange ? preferences.getAgeMin() : Integer.valueOf(preferences.getAge()),
+                ageRange ? preferences.getAgeMax() : Integer.valueOf(preferences.getAge()),
+                toGender(preferences.getGender()),
+                toValues(preferences.getCastes(), preferences.getCaste()),
+                toValues(preferences.getReligions(), preferences.getReligion()),
+                toValues(preferences.getLocations(), preferences.getLocation()),
+                toValues(preferences.getProfessions(), preferences.getProfession()),
+                toValues(preferences.getEducations(), preferences.getEducation()),
+                preferences.getWithinKm() != null && preferences.getWithinKm() > 0 ? preferences.getWithinKm() : null);
+    }
+
+    // Same criteria with a different location set, used to apply a distance preference
+    public MatchCriteria withLocations(Set<String> locations) {
+        return new MatchCriteria(ageMin, ageMax, gender, castes, religions,
+                Set.copyOf(locations), professions, educations, withinKm);
+    }
+
+    public boolean hasAgeFilter() {
+        return ageMin != null || ageMax != null;
+    }
+
+    public boolean acceptsAge(Integer age) {
+        return !hasAgeFilter()
+                || (age != null && (ageMin == null || age >= ageMin) && (ageMax == null || age <= ageMax));
+    }
+
+    /**
+     * True when one of the filter fields is unconstrained, which makes the
+     * any-field-matches filter accept every profile.
+     */
+    public boolean hasWildcardFilter() {
+        return !hasAgeFilter() || gender == null || castes == null
+                || religions == null || locations == null || professions == null;
+    }
+
+    /**
+     * Whether the profile passes the any-field-matches filter, evaluated against a
+     * single user rather than the index.
+     */
+    public boolean accepts(User profile) {
+        return hasWildcardFilter()
+                || acceptsAge(profile.getAge())
+                || gender == profile.getGender()
+                || accepts(castes, profile.getCaste())
+                || accepts(religions, profile.getReligion())
+                || accepts(locations, profile.getLocation())
+                || accepts(professions, profile.getProfession());
+    }
+
+    /**
+     * Weighted score of a single profile; matches ColumnarProfileStore.topMatches.
+     */
+    public int score(User profile, MatchWeights weights) {
+        int score = 0;
+        if (acceptsAge(profile.getAge())) score += weights.getAge();
+        if (gender == null || gender == profile.getGender()) score += weights.getGender();
+        if (accepts(castes, profile.getCaste())) score += weights.getCaste();
+        if (accepts(religions, profile.getReligion())) score += weights.getReligion();
+        if (accepts(locations, profile.getLocation())) score += weights.getLocation();
+        if (accepts(professions, profile.getProfession())) score += weights.getProfession();
+        if (accepts(educations, profile.getEducation())) score += weights.getEducation();
+        return score;
+    }
+
+    // A null set is unconstrained; Set.of sets reject contains(null), so check that first
+    private static boolean accepts(Set<String> values, String value) {
+        if (values == null) {
+            return true;
+        }
+        String normalized = MatchIndex.normalize(value);
+        return normalized != null && values.contains(normalized);
+    }
+
+    // Normalized value set: the multi-valued field when filled in, else the single value
+    private static Set<String> toValues(Collection<String> values, String value) {
+        if (values != null) {
+            Set<String> normalized = values.stream()
+                    .map(MatchIndex::normalize)
+                    .filter(v -> v != null && !v.isEmpty())
+                    .collect(Collectors.toUnmodifiableSet());
+            if (!normalized.isEmpty()) {
+                return normalized;
+            }
+        }
+        String single = MatchIndex.normalize(value);
+        return single != null ? Set.of(single) : null;
+    }
+
+    /**
+     * Convert gender string from preferences to User.Gender enum.
+     * "ANY" and unknown values mean no gender constraint.
+     */
+    static User.Gender toGender(String genderString) {
+        if (genderString == null || genderString.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            return User.Gender.valueOf(genderString.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
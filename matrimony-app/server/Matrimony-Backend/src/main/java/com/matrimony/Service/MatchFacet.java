@@ -0,0 +1,8 @@
+package com.matrimony.Service;
+
+/**
+ * Profile fields the match preview breaks its counts down by.
+ */
+public enum MatchFacet {
+    LOCATION, RELIGION, PROFESSION
+}
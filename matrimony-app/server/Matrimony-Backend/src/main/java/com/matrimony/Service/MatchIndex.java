@@ -0,0 +1,324 @@
+package com.matrimony.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import com.matrimony.Entity.User;
+
+/**
+ * In-process match index over active, approved USER-role profiles.
+ *
+ * Keeps one compressed bitmap of user ids per value of age, gender, caste,
+ * religion, location and profession, so a match lookup is a union of a few
+ * bitmaps instead of a scan over the Users table; ColumnarProfileStore scores
+ * the resulting candidates. String values are compared trimmed and
+ * case-insensitively, the same way the MySQL collation compares them.
+ */
+@Component
+public class MatchIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Every profile that is currently allowed to show up in matches
+    private final RoaringBitmap eligible = new RoaringBitmap();
+
+    // Sorted so an age range is a contiguous sub-map
+    private final NavigableMap<Integer, RoaringBitmap> byAge = new TreeMap<>();
+    private final Map<User.Gender, RoaringBitmap> byGender = new EnumMap<>(User.Gender.class);
+    private final Map<String, RoaringBitmap> byCaste = new HashMap<>();
+    private final Map<String, RoaringBitmap> byReligion = new HashMap<>();
+    private final Map<String, RoaringBitmap> byLocation = new HashMap<>();
+    private final Map<String, RoaringBitmap> byProfession = new HashMap<>();
+
+    // Values each user was indexed under, so an update can clear the old bits
+    private final Map<Integer, IndexedProfile> indexed = new HashMap<>();
+
+    private volatile boolean ready = false;
+
+    private record IndexedProfile(Integer age, User.Gender gender, String caste,
+                                  String religion, String location, String profession) {
+    }
+
+    // Replace the index contents with the given profiles
+    public void rebuild(List<User> users) {
+        lock.writeLock().lock();
+        try {
+            eligible.clear();
+            byAge.clear();
+            byGender.clear();
+            byCaste.clear();
+            byReligion.clear();
+            byLocation.clear();
+            byProfession.clear();
+            indexed.clear();
+
+            for (User user : users) {
+                add(user);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Rebuild from the profile columns, used when they were loaded from a snapshot
+    public void rebuild(ColumnarProfileStore store) {
+        lock.writeLock().lock();
+        try {
+            eligible.clear();
+            byAge.clear();
+            byGender.clear();
+            byCaste.clear();
+            byReligion.clear();
+            byLocation.clear();
+            byProfession.clear();
+            indexed.clear();
+
+            store.forEachProfile((userId, age, gender, caste, religion, location, profession) ->
+                    add(userId, new IndexedProfile(age, gender, caste, religion, location, profession)));
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Snapshot of every profile currently allowed in matches
+    public RoaringBitmap getEligible() {
+        lock.readLock().lock();
+        try {
+            return eligible.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bring the index in line with the given user's current state. Users that are
+     * no longer active, approved regular users are dropped from the index.
+     */
+    public void reindex(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(toKey(user.getId()));
+            if (isMatchable(user)) {
+                add(user);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(toKey(userId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Same semantics as MatchCriteria.accepts: a profile matches when
+     * any one of the criteria is satisfied, and a null criterion matches everyone.
+     * A value set is the union of its values' bitmaps and an age range the union of
+     * the sorted age index's sub-range.
+     */
+    public RoaringBitmap findCandidates(MatchCriteria criteria, Long excludeUserId) {
+        RoaringBitmap result;
+
+        lock.readLock().lock();
+        try {
+            if (criteria.hasWildcardFilter()) {
+                result = eligible.clone();
+            } else {
+                List<RoaringBitmap> bitmaps = new ArrayList<>(ageRange(criteria).values());
+                collect(bitmaps, byGender, Set.of(criteria.getGender()));
+                collect(bitmaps, byCaste, criteria.getCastes());
+                collect(bitmaps, byReligion, criteria.getReligions());
+                collect(bitmaps, byLocation, criteria.getLocations());
+                collect(bitmaps, byProfession, criteria.getProfessions());
+                result = bitmaps.isEmpty() ? new RoaringBitmap() : FastAggregation.or(bitmaps.iterator());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (excludeUserId != null) {
+            result.remove(toKey(excludeUserId));
+        }
+        return result;
+    }
+
+    /**
+     * Number of profiles findCandidates would return, without copying the
+     * eligible set when a wildcard criterion matches everyone.
+     */
+    public long countCandidates(MatchCriteria criteria, Long excludeUserId) {
+        if (!criteria.hasWildcardFilter()) {
+            return findCandidates(criteria, excludeUserId).getLongCardinality();
+        }
+
+        lock.readLock().lock();
+        try {
+            long count = eligible.getLongCardinality();
+            if (excludeUserId != null && eligible.contains(toKey(excludeUserId))) {
+                count--;
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Candidates whose profile location is exactly the given normalized value
+    public RoaringBitmap candidatesAt(RoaringBitmap candidates, String location) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap atLocation = byLocation.get(location);
+            return atLocation != null ? RoaringBitmap.and(candidates, atLocation) : new RoaringBitmap();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * How many of the candidates have each value of the facet, largest first and at
+     * most limit values. One cardinality-only intersection per distinct value.
+     */
+    public Map<String, Long> facetCounts(RoaringBitmap candidates, MatchFacet facet, int limit) {
+        List<Map.Entry<String, Long>> counts = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Map<String, RoaringBitmap> index = switch (facet) {
+                case LOCATION -> byLocation;
+                case RELIGION -> byReligion;
+                case PROFESSION -> byProfession;
+            };
+            for (Map.Entry<String, RoaringBitmap> entry : index.entrySet()) {
+                long count = RoaringBitmap.andCardinality(candidates, entry.getValue());
+                if (count > 0) {
+                    counts.add(Map.entry(entry.getKey(), count));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        counts.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : counts.subList(0, Math.min(limit, counts.size()))) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    public static boolean isMatchable(User user) {
+        return user.getRole() == User.Role.USER
+                && Boolean.TRUE.equals(user.getIsActive())
+                && Boolean.TRUE.equals(user.getProfileApproved());
+    }
+
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase();
+    }
+
+    static int toKey(Long userId) {
+        return Math.toIntExact(userId);
+    }
+
+    // Callers must hold the write lock
+    private void add(User user) {
+        add(toKey(user.getId()), new IndexedProfile(
+                user.getAge(),
+                user.getGender(),
+                normalize(user.getCaste()),
+                normalize(user.getReligion()),
+                normalize(user.getLocation()),
+                normalize(user.getProfession())));
+    }
+
+    // Callers must hold the write lock
+    private void add(int key, IndexedProfile profile) {
+        eligible.add(key);
+        addTo(byAge, profile.age(), key);
+        addTo(byGender, profile.gender(), key);
+        addTo(byCaste, profile.caste(), key);
+        addTo(byReligion, profile.religion(), key);
+        addTo(byLocation, profile.location(), key);
+        addTo(byProfession, profile.profession(), key);
+        indexed.put(key, profile);
+    }
+
+    // Callers must hold the write lock
+    private void removeInternal(int key) {
+        IndexedProfile profile = indexed.remove(key);
+        if (profile == null) {
+            return;
+        }
+
+        eligible.remove(key);
+        removeFrom(byAge, profile.age(), key);
+        removeFrom(byGender, profile.gender(), key);
+        removeFrom(byCaste, profile.caste(), key);
+        removeFrom(byReligion, profile.religion(), key);
+        removeFrom(byLocation, profile.location(), key);
+        removeFrom(byProfession, profile.profession(), key);
+    }
+
+    private static <K> void addTo(Map<K, RoaringBitmap> index, K value, int key) {
+        if (value != null) {
+            index.computeIfAbsent(value, v -> new RoaringBitmap()).add(key);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> index, K value, int key) {
+        if (value == null) {
+            return;
+        }
+        RoaringBitmap bitmap = index.get(value);
+        if (bitmap != null) {
+            bitmap.remove(key);
+            if (bitmap.isEmpty()) {
+                index.remove(value);
+            }
+        }
+    }
+
+    // Callers must hold a lock; open range ends extend to the lowest or highest indexed age
+    private NavigableMap<Integer, RoaringBitmap> ageRange(MatchCriteria criteria) {
+        int from = criteria.getAgeMin() != null ? criteria.getAgeMin() : Integer.MIN_VALUE;
+        int to = criteria.getAgeMax() != null ? criteria.getAgeMax() : Integer.MAX_VALUE;
+        return from > to ? Collections.emptyNavigableMap() : byAge.subMap(from, true, to, true);
+    }
+
+    private static <K> void collect(List<RoaringBitmap> bitmaps, Map<K, RoaringBitmap> index, Set<K> values) {
+        for (K value : values) {
+            RoaringBitmap bitmap = index.get(value);
+            if (bitmap != null) {
+                bitmaps.add(bitmap);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.matrimony.Service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.matrimony.Dao.UserDao;
+import com.matrimony.Entity.PendingRequest;
+import com.matrimony.Entity.Preferences;
+import com.matrimony.Entity.User;
+
+/**
+ * Single entry point for keeping the match structures current. Services call
+ * this after saving a profile or preferences instead of touching each index.
+ */
+@Service
+public class MatchMaintenanceService {
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private MatchIndex matchIndex;
+
+    @Autowired
+    private ColumnarProfileStore profileStore;
+
+    @Autowired
+    private ProfileSnapshot profileSnapshot;
+
+    @Autowired
+    private PreferenceIndex preferenceIndex;
+
+    @Autowired
+    private GeoIndex geoIndex;
+
+    @Autowired
+    private InterestIndex interestIndex;
+
+    @Autowired
+    private MatchMaterializer matchMaterializer;
+
+    @Autowired
+    private ContactIndex contactIndex;
+
+    @Autowired
+    private ExclusionIndex exclusionIndex;
+
+    /**
+     * Warm start: load the profile columns from the on-disk snapshot, re-read only
+     * users changed since it was taken, and derive the candidate bitmaps from the
+     * columns. Without a usable snapshot this falls back to a full rebuild.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadProfiles() {
+        ProfileSnapshot.Watermark watermark = profileSnapshot.load(profileStore);
+        if (watermark == null) {
+            rebuildProfiles();
+        } else {
+            ProfileSnapshot.Watermark next = profileSnapshot.currentWatermark();
+            List<User> changed = userDao.findChangedSince(watermark.takenAt(), watermark.maxUserId());
+            changed.forEach(profileStore::reindex);
+            matchIndex.rebuild(profileStore);
+            profileStore.forEachProfile((userId, age, gender, caste, religion, location, profession) ->
+                    geoIndex.register(location));
+
+            System.out.println("Match index loaded from snapshot with " + profileStore.size()
+                    + " profiles, " + changed.size() + " changed users reconciled");
+            profileSnapshot.write(profileStore, next);
+        }
+
+        // After the profiles, so distance preferences expand against every known location
+        preferenceIndex.rebuild();
+    }
+
+    /**
+     * Load every matchable profile once and build both the candidate bitmaps and
+     * the scoring columns from it. Runs when there is no snapshot and before a
+     * full recompute, and refreshes the snapshot afterwards.
+     */
+    public void rebuildProfiles() {
+        ProfileSnapshot.Watermark watermark = profileSnapshot.currentWatermark();
+        List<User> users = userDao.findMatchableUsers();
+
+        // Columns first: the index reporting ready is what lets requests score
+        profileStore.rebuild(users);
+        matchIndex.rebuild(users);
+        users.forEach(user -> geoIndex.register(user.getLocation()));
+
+        System.out.println("Match index built with " + users.size() + " profiles");
+        profileSnapshot.write(profileStore, watermark);
+    }
+
+    // Profile fields, approval or active state changed
+    public void onProfileChanged(User user) {
+        try {
+            profileStore.reindex(user);
+            matchIndex.reindex(user);
+            geoIndex.register(user.getLocation());
+            interestIndex.reindex(user);
+            // Users without stored preferences match on defaults derived from the profile
+            MatchCriteria defaults = preferenceIndex.reindexDefaults(user);
+            if (defaults != null && matchMaterializer.isMaterialized(user.getId())) {
+                matchMaterializer.refreshOutbound(user.getId(), defaults);
+            }
+            matchMaterializer.refreshInbound(user);
+        } catch (Exception e) {
+            // The saved profile stays valid; a later recompute repairs the match structures
+            System.err.println("Error updating matches for user " + user.getId() + ": " + e.getMessage());
+        }
+    }
+
+    // Stored preferences created or edited
+    public void onPreferencesChanged(Preferences preferences) {
+        Long userId = preferences.getUser().getId();
+        try {
+            MatchCriteria criteria = geoIndex.expand(MatchCriteria.from(preferences));
+            preferenceIndex.reindex(userId, criteria);
+            matchMaterializer.refreshOutbound(userId, criteria);
+        } catch (Exception e) {
+            System.err.println("Error updating matches for preferences of user " + userId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * A hide or block between two users was added or removed. Added ones drop the
+     * pair from materialized lists; removed ones rebuild the affected lists so the
+     * profiles can come back.
+     */
+    public void onExclusionChanged(Long userId, Long otherUserId, boolean removed) {
+        try {
+            for (Long viewer : List.of(userId, otherUserId)) {
+                Long other = viewer.equals(userId) ? otherUserId : userId;
+                if (exclusionIndex.isExcluded(viewer, other)) {
+                    matchMaterializer.removePair(viewer, other);
+                } else if (removed && matchMaterializer.isMaterialized(viewer)) {
+                    MatchCriteria criteria = preferenceIndex.getCriteria(viewer);
+                    if (criteria != null) {
+                        matchMaterializer.refreshOutbound(viewer, criteria);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error updating matches for users " + userId + " and " + otherUserId + ": " + e.getMessage());
+        }
+    }
+
+    // Request sent, accepted or rejected: contacted users leave each other's matches
+    public void onRequestChanged(PendingRequest request) {
+        Long senderId = request.getSender().getId();
+        Long receiverId = request.getReceiver().getId();
+        try {
+            contactIndex.record(request);
+            matchMaterializer.removePair(senderId, receiverId);
+            if (PendingRequest.STATUS_ACCEPTED.equals(request.getStatus())) {
+                matchMaterializer.removePair(receiverId, senderId);
+            }
+        } catch (Exception e) {
+            System.err.println("Error updating matches for request " + request.getId() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.matrimony.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.matrimony.Dao.UserMatchDao;
+import com.matrimony.Entity.User;
+import com.matrimony.Entity.UserMatch;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Maintains the user_matches table so reading a user's matches is an indexed
+ * range read. Changes are applied as deltas: a preference edit rewrites only that
+ * user's outbound rows, a profile edit rewrites only the rows pointing at that user.
+ *
+ * Each list keeps its best maxPerUser rows. Rows are written as upserts, so concurrent
+ * refreshes touching the same pair do not trip the unique (user_id, candidate_id) key.
+ */
+@Service
+public class MatchMaterializer {
+
+    public static final String UPSERT_SQL = "INSERT INTO user_matches (user_id, candidate_id, score) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE score = VALUES(score)";
+
+    // Viewer ids per list-size lookup in refreshInbound
+    private static final int STATS_CHUNK = 1000;
+
+    @Autowired
+    private UserMatchDao userMatchDao;
+
+    @Autowired
+    private MatchIndex matchIndex;
+
+    @Autowired
+    private ColumnarProfileStore profileStore;
+
+    @Autowired
+    private PreferenceIndex preferenceIndex;
+
+    @Autowired
+    private MatchWeights matchWeights;
+
+    @Autowired
+    private ContactIndex contactIndex;
+
+    @Autowired
+    private ExclusionIndex exclusionIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Rows kept per user's list
+    @Value("${match.materialized.max-per-user:200}")
+    private int maxPerUser;
+
+    // Users whose match list has been materialized at least once
+    private final RoaringBitmap materialized = new RoaringBitmap();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadMaterializedUsers() {
+        List<Long> userIds = userMatchDao.findMaterializedUserIds();
+        synchronized (materialized) {
+            materialized.clear();
+            userIds.forEach(id -> materialized.add(MatchIndex.toKey(id)));
+        }
+    }
+
+    public boolean isMaterialized(Long userId) {
+        synchronized (materialized) {
+            return materialized.contains(MatchIndex.toKey(userId));
+        }
+    }
+
+    // Record users whose rows were written outside refreshOutbound, e.g. by the batch job
+    public void markMaterialized(List<Long> userIds) {
+        synchronized (materialized) {
+            userIds.forEach(id -> materialized.add(MatchIndex.toKey(id)));
+        }
+    }
+
+    /**
+     * Recompute the given user's own match list from the index.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void refreshOutbound(Long userId, MatchCriteria criteria) {
+        if (!matchIndex.isReady()) {
+            return;
+        }
+
+        RoaringBitmap candidates = matchIndex.findCandidates(criteria, userId);
+        candidates.andNot(contactIndex.getContacted(userId));
+        candidates.andNot(exclusionIndex.getExcluded(userId));
+        List<ScoredMatch> top = profileStore.topMatches(criteria, candidates, matchWeights, null, maxPerUser, null);
+
+        userMatchDao.deleteByUserId(userId);
+        jdbcTemplate.batchUpdate(UPSERT_SQL, top.stream()
+                .map(match -> new Object[] { userId, match.userId(), match.score() })
+                .collect(Collectors.toList()));
+
+        synchronized (materialized) {
+            materialized.add(MatchIndex.toKey(userId));
+        }
+    }
+
+    /**
+     * Rewrite the rows that list the given user as a candidate. Only viewers whose
+     * preferences the profile satisfies are touched, found through the preference index,
+     * and a full list only takes the profile when it scores at least as well as the
+     * list's lowest row; the list is then trimmed back to maxPerUser.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void refreshInbound(User profile) {
+        Long candidateId = profile.getId();
+        userMatchDao.deleteByCandidateId(candidateId);
+
+        if (!MatchIndex.isMatchable(profile)) {
+            return;
+        }
+
+        RoaringBitmap viewers = preferenceIndex.findViewersAccepting(profile);
+        synchronized (materialized) {
+            viewers.and(materialized);
+        }
+
+        Map<Long, Integer> scores = new HashMap<>();
+        viewers.forEach((int viewer) -> {
+            MatchCriteria criteria = preferenceIndex.getCriteria((long) viewer);
+            if (criteria != null && !contactIndex.hasContacted((long) viewer, candidateId)
+                    && !exclusionIndex.isExcluded((long) viewer, candidateId)) {
+                scores.put((long) viewer, criteria.score(profile, matchWeights));
+            }
+        });
+
+        List<Object[]> rows = new ArrayList<>(scores.size());
+        List<Long> toTrim = new ArrayList<>();
+        List<Long> viewerIds = new ArrayList<>(scores.keySet());
+        for (int from = 0; from < viewerIds.size(); from += STATS_CHUNK) {
+            List<Long> chunk = viewerIds.subList(from, Math.min(from + STATS_CHUNK, viewerIds.size()));
+            Map<Long, Object[]> stats = new HashMap<>();
+            for (Object[] stat : userMatchDao.findListStats(chunk)) {
+                stats.put((Long) stat[0], stat);
+            }
+
+            for (Long viewer : chunk) {
+                int score = scores.get(viewer);
+                Object[] stat = stats.get(viewer);
+                boolean full = stat != null && ((Number) stat[1]).longValue() >= maxPerUser;
+                if (full && score < ((Number) stat[2]).intValue()) {
+                    continue;
+                }
+                rows.add(new Object[] { viewer, candidateId, score });
+                if (full) {
+                    toTrim.add(viewer);
+                }
+            }
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        for (Long viewer : toTrim) {
+            userMatchDao.trimToSize(viewer, maxPerUser);
+        }
+    }
+
+    // Drop a single candidate from a user's materialized list, e.g. once they were contacted
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void removePair(Long userId, Long candidateId) {
+        userMatchDao.deleteByUserIdAndCandidateId(userId, candidateId);
+    }
+
+    /**
+     * A user's whole materialized list, best first; at most maxPerUser rows.
+     */
+    public List<ScoredMatch> readList(Long userId) {
+        return userMatchDao.findByUserIdOrderByScoreDescCandidateIdAsc(userId, Pageable.unpaged()).stream()
+                .map(row -> new ScoredMatch(row.getCandidateId(), row.getScore()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * One page of a materialized match list, ranked after the given position.
+     */
+    public List<ScoredMatch> readPage(Long userId, ScoredMatch after, int size) {
+        Pageable page = PageRequest.of(0, size);
+        List<UserMatch> rows = after == null
+                ? userMatchDao.findByUserIdOrderByScoreDescCandidateIdAsc(userId, page)
+                : userMatchDao.findPageAfter(userId, after.score(), after.userId(), page);
+
+        return rows.stream()
+                .map(row -> new ScoredMatch(row.getCandidateId(), row.getScore()))
+                .collect(Collectors.toList());
+    }
+}
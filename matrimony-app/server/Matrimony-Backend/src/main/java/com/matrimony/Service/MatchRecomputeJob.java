@@ -0,0 +1,189 @@
+package com.matrimony.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.matrimony.Dto.MatchRecomputeStatusDto;
+
+/**
+ * Admin-triggered rebuild of every user's materialized match list, e.g. after the
+ * scoring weights change or users were bulk-imported behind the services' back.
+ *
+ * The user id space is split across a ForkJoinPool; each leaf scores its slice from
+ * the in-memory profile columns and writes it with JDBC batches in its own transaction. The
+ * pool size and a pause between slices keep live traffic responsive.
+ */
+@Service
+public class MatchRecomputeJob {
+
+    @Autowired
+    private MatchIndex matchIndex;
+
+    @Autowired
+    private ColumnarProfileStore profileStore;
+
+    @Autowired
+    private MatchMaintenanceService matchMaintenanceService;
+
+    @Autowired
+    private PreferenceIndex preferenceIndex;
+
+    @Autowired
+    private MatchMaterializer matchMaterializer;
+
+    @Autowired
+    private MatchWeights matchWeights;
+
+    @Autowired
+    private ContactIndex contactIndex;
+
+    @Autowired
+    private InterestIndex interestIndex;
+
+    @Autowired
+    private ExclusionIndex exclusionIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${match.materialized.max-per-user:200}")
+    private int maxPerUser;
+
+    @Value("${match.recompute.parallelism:2}")
+    private int parallelism;
+
+    // Users per leaf task, and so per write transaction
+    @Value("${match.recompute.batch-size:500}")
+    private int batchSize;
+
+    // Pause after each leaf so the database and CPU are shared with live requests
+    @Value("${match.recompute.pause-ms:50}")
+    private long pauseMs;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger processed = new AtomicInteger();
+    private volatile int total;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    /**
+     * Start a full recompute in the background. Returns false if one is already running.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        processed.set(0);
+        total = 0;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        error = null;
+
+        Thread worker = new Thread(this::run, "match-recompute");
+        worker.setDaemon(true);
+        worker.start();
+        return true;
+    }
+
+    public MatchRecomputeStatusDto getStatus() {
+        return new MatchRecomputeStatusDto(running.get(), total, processed.get(), startedAt, finishedAt, error);
+    }
+
+    private void run() {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            // Reload from the database so users written outside the services are included
+            matchMaintenanceService.rebuildProfiles();
+            preferenceIndex.rebuild();
+            contactIndex.rebuild();
+            interestIndex.rebuild();
+            exclusionIndex.rebuild();
+
+            int[] userIds = matchIndex.getEligible().toArray();
+            total = userIds.length;
+
+            pool.invoke(new RecomputeSlice(userIds, 0, userIds.length));
+            System.out.println("Match recompute finished for " + processed.get() + " users");
+        } catch (Exception e) {
+            error = e.getMessage();
+            System.err.println("Match recompute failed: " + e.getMessage());
+        } finally {
+            pool.shutdown();
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    private class RecomputeSlice extends RecursiveAction {
+
+        private final int[] userIds;
+        private final int from;
+        private final int to;
+
+        RecomputeSlice(int[] userIds, int from, int to) {
+            this.userIds = userIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > batchSize) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RecomputeSlice(userIds, from, mid), new RecomputeSlice(userIds, mid, to));
+                return;
+            }
+
+            List<Object[]> deletes = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            List<Long> done = new ArrayList<>();
+
+            for (int i = from; i < to; i++) {
+                long userId = userIds[i];
+                MatchCriteria criteria = preferenceIndex.getCriteria(userId);
+                if (criteria != null) {
+                    RoaringBitmap candidates = matchIndex.findCandidates(criteria, userId);
+                    candidates.andNot(contactIndex.getContacted(userId));
+                    candidates.andNot(exclusionIndex.getExcluded(userId));
+                    for (ScoredMatch match : profileStore.topMatches(criteria, candidates, matchWeights, null, maxPerUser, null)) {
+                        inserts.add(new Object[] { userId, match.userId(), match.score() });
+                    }
+                    deletes.add(new Object[] { userId });
+                    done.add(userId);
+                }
+                processed.incrementAndGet();
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("DELETE FROM user_matches WHERE user_id = ?", deletes);
+                jdbcTemplate.batchUpdate(MatchMaterializer.UPSERT_SQL, inserts);
+            });
+            matchMaterializer.markMaterialized(done);
+
+            if (pauseMs > 0) {
+                try {
+                    Thread.sleep(pauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -1,15 +1,46 @@
 package com.matrimony.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
+import com.matrimony.Dto.MatchPageDto;
+import com.matrimony.Dto.MatchPreviewDto;
+import com.matrimony.Dto.MatchResultDto;
+import com.matrimony.Dto.NearbyMatchDto;
 import com.matrimony.Dto.PreferencesDto;
 import com.matrimony.Dto.UserRegisterDto;
+import com.matrimony.Entity.Preferences;
 import com.matrimony.Entity.User;
 
 public interface MatchService {
 
 	List<User> getMatches(Long userId);
 
+	// Best "limit" matches by weighted preference score, highest first
+	List<MatchResultDto> getRankedMatches(Long userId, int limit);
+
+	// One page of ranked matches; pass the previous page's nextCursor to continue
+	MatchPageDto getMatches(Long userId, String cursor, int limit);
+
+	// Number of users getMatches(userId) would return, without loading them
+	long countMatches(Long userId);
+
+	// Matches where each side satisfies the other's preferences, scored from both sides
+	List<MatchResultDto> getReciprocalMatches(Long userId, int limit);
+
+	// Matches within km of the user's own location, nearest first
+	List<NearbyMatchDto> getNearbyMatches(Long userId, int km, int limit);
+
+	// Match count and facet breakdown for unsaved preferences; reads only in-memory indexes
+	MatchPreviewDto previewMatches(Long userId, Preferences preferences);
+
+	// Throws ApiException while the match index is loading; call before committing an export response
+	void checkExportReady();
+
+	// Write every match as one JSON object per line, loading users a batch at a time
+	void exportMatches(Long userId, OutputStream out) throws IOException;
+
 //	List<UserRegisterDto> getMatchesByUserId(Long userId);
 
 	 
@@ -1,26 +1,45 @@
 package com.matrimony.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.modelmapper.ModelMapper;
+import org.roaringbitmap.BatchIterator;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.matrimony.CustomExceptions.ApiException;
 import com.matrimony.CustomExceptions.ResourceNotFoundException;
 import com.matrimony.Dao.MatchDao;
 import com.matrimony.Dao.PreferencesDao;
 import com.matrimony.Dao.UserDao;
+import com.matrimony.Dto.MatchPageDto;
+import com.matrimony.Dto.MatchPreviewDto;
+import com.matrimony.Dto.MatchResultDto;
+import com.matrimony.Dto.NearbyMatchDto;
 import com.matrimony.Dto.PreferencesDto;
 import com.matrimony.Dto.UserRegisterDto;
 import com.matrimony.Entity.Preferences;
 import com.matrimony.Entity.User;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class MatchServiceImpl implements MatchService {
 
     @Autowired
@@ -28,31 +47,83 @@ public class MatchServiceImpl implements MatchService {
     
     @Autowired
     private PreferencesDao preferencesDao;
+
+    @Autowired
+    private PreferenceService preferenceService;
+
+    @Autowired
+    private MatchIndex matchIndex;
+
+    @Autowired
+    private PreferenceIndex preferenceIndex;
+
+    @Autowired
+    private ContactIndex contactIndex;
+
+    @Autowired
+    private ExclusionIndex exclusionIndex;
     
+    @Value("${match.top-k.max:100}")
+    private int maxTopK;
+
+    // Ranked lists score this many times k candidates before the interest and co-acceptance rerank
+    @Value("${match.interests.rerank-factor:3}")
+    private int rerankFactor;
+
+    @Value("${match.page.max-size:50}")
+    private int maxPageSize;
+
+    @Value("${match.export.batch-size:500}")
+    private int exportBatchSize;
+
+    @Value("${match.nearby.max-km:500}")
+    private int maxNearbyKm;
+
+    @Value("${match.preview.max-facet-values:20}")
+    private int maxFacetValues;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ColumnarProfileStore profileStore;
+
+    @Autowired
+    private GeoIndex geoIndex;
+
+    @Autowired
+    private InterestIndex interestIndex;
+
+    @Autowired
+    private CoAcceptanceIndex coAcceptanceIndex;
+
+    @Autowired
+    private MatchWeights matchWeights;
+
+    @Autowired
+    private MatchMaterializer matchMaterializer;
+
     @Override
     public List<User> getMatches(Long userId) {
-        // First, check if user exists
-        User user = userDao.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
-        
-        // Check if preferences exist, if not create default ones
-        Preferences preferences = preferencesDao.findByUserId(userId);
-        if (preferences == null) {
-            System.out.println("Preferences not found for user " + userId + ", creating default preferences");
-            preferences = createDefaultPreferences(user);
-        }
+        Preferences preferences = loadPreferences(userId);
+        MatchCriteria criteria = geoIndex.expand(MatchCriteria.from(preferences));
         
         System.out.println("Fetching matches for user: " + userId + " with preferences: " + preferences);
 
-        List<User> matches = userDao.findMatchesByPreferences(
-            preferences.getAge(),
-            preferences.getCaste(),
-            convertGenderStringToEnum(preferences.getGender()),  // Convert String to User.Gender enum
-            preferences.getLocation(),
-            preferences.getProfession(),
-            preferences.getReligion(),
-            userId  // Exclude current user
-        );
+        List<User> matches;
+        if (matchIndex.isReady()) {
+            // Resolve candidate ids from the in-memory bitmaps, then load only those users
+            RoaringBitmap candidates = resolveCandidates(criteria, userId);
+            matches = userDao.findAllById(toUserIds(candidates));
+        } else {
+            // Index is still warming up, fall back to the database query
+            matches = userDao.findMatchesByCriteria(userId, criteria.hasWildcardFilter(),
+                ageMin(criteria), ageMax(criteria), criteria.getGender(), orNone(criteria.getCastes()),
+                orNone(criteria.getReligions()), orNone(criteria.getLocations()), orNone(criteria.getProfessions()));
+        }
         
         // Debug: Check if any admin users are in the results
         long adminCount = matches.stream().filter(u -> u.getRole() == User.Role.ADMIN).count();
@@ -66,63 +137,290 @@ public class MatchServiceImpl implements MatchService {
         
         return matches;
     }
-    
-    /**
-     * Create default preferences for a user based on their profile information
-     */
-    private Preferences createDefaultPreferences(User user) {
-        // Double-check if preferences already exist to prevent duplicates
-        Preferences existingPreferences = preferencesDao.findByUserId(user.getId());
-        if (existingPreferences != null) {
-            System.out.println("Preferences already exist for user " + user.getId() + ", returning existing ones");
-            return existingPreferences;
+
+    @Override
+    public List<MatchResultDto> getRankedMatches(Long userId, int limit) {
+        int k = Math.max(1, Math.min(limit, maxTopK));
+        List<ScoredMatch> pool = rankedPage(userId, null, rerankPoolSize(k));
+        return hydrate(rerank(userId, pool, k));
+    }
+
+    @Override
+    public MatchPageDto getMatches(Long userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        ScoredMatch after = cursor == null || cursor.isBlank() ? null : ScoredMatch.fromCursor(cursor);
+
+        // Ask for one extra match to learn whether another page exists
+        List<ScoredMatch> top = rankedPage(userId, after, pageSize + 1);
+
+        String nextCursor = null;
+        if (top.size() > pageSize) {
+            top = top.subList(0, pageSize);
+            nextCursor = top.get(pageSize - 1).toCursor();
         }
-        
-        Preferences defaultPreferences = new Preferences();
-        
-        // Set default values based on user's own profile
-        defaultPreferences.setAge(user.getAge() != null ? user.getAge() : 25);
-        defaultPreferences.setLocation(user.getLocation() != null ? user.getLocation() : "Any");
-        defaultPreferences.setReligion(user.getReligion() != null ? user.getReligion() : "Any");
-        defaultPreferences.setCaste(user.getCaste() != null ? user.getCaste() : "Any");
-        defaultPreferences.setEducation(user.getEducation() != null ? user.getEducation() : "Any");
-        defaultPreferences.setProfession(user.getProfession() != null ? user.getProfession() : "Any");
-        
-        // Set gender preference to opposite of user's gender
-        if (user.getGender() != null) {
-            if (user.getGender() == User.Gender.MALE) {
-                defaultPreferences.setGender("FEMALE");
-            } else if (user.getGender() == User.Gender.FEMALE) {
-                defaultPreferences.setGender("MALE");
-            } else {
-                defaultPreferences.setGender("ANY");
+        return new MatchPageDto(hydrate(top), nextCursor);
+    }
+
+    @Override
+    public long countMatches(Long userId) {
+        MatchCriteria criteria = geoIndex.expand(MatchCriteria.from(loadPreferences(userId)));
+
+        if (matchIndex.isReady()) {
+            RoaringBitmap removed = contactIndex.getContacted(userId);
+            removed.or(exclusionIndex.getExcluded(userId));
+            if (removed.isEmpty()) {
+                return matchIndex.countCandidates(criteria, userId);
             }
-        } else {
-            defaultPreferences.setGender("ANY");
+            return RoaringBitmap.andNotCardinality(matchIndex.findCandidates(criteria, userId), removed);
         }
-        
-        defaultPreferences.setUser(user);
-        
-        // Save the default preferences
-        Preferences savedPreferences = preferencesDao.save(defaultPreferences);
-        System.out.println("Created default preferences for user " + user.getId() + ": " + savedPreferences);
-        
-        return savedPreferences;
+        return userDao.countMatchesByCriteria(userId, criteria.hasWildcardFilter(),
+            ageMin(criteria), ageMax(criteria), criteria.getGender(), orNone(criteria.getCastes()),
+            orNone(criteria.getReligions()), orNone(criteria.getLocations()), orNone(criteria.getProfessions()));
+    }
+
+    @Override
+    public List<MatchResultDto> getReciprocalMatches(Long userId, int limit) {
+        if (!matchIndex.isReady()) {
+            throw new ApiException("Match index is still loading, please try again shortly");
+        }
+
+        User user = userDao.findById(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        int k = Math.max(1, Math.min(limit, maxTopK));
+        MatchCriteria criteria = geoIndex.expand(MatchCriteria.from(loadPreferences(userId)));
+
+        // Forward candidates that would also accept a profile like mine
+        RoaringBitmap candidates = resolveCandidates(criteria, userId);
+        candidates.and(preferenceIndex.findViewersAccepting(user));
+
+        // Combined score: how well they fit my preferences plus how well I fit theirs
+        List<ScoredMatch> pool = profileStore.topMatches(criteria, candidates, matchWeights, null, rerankPoolSize(k),
+            candidateId -> {
+                MatchCriteria theirs = preferenceIndex.getCriteria((long) candidateId);
+                return theirs != null ? theirs.score(user, matchWeights) : 0;
+            });
+        return hydrate(rerank(userId, pool, k));
+    }
+
+    @Override
+    public List<NearbyMatchDto> getNearbyMatches(Long userId, int km, int limit) {
+        if (!matchIndex.isReady()) {
+            throw new ApiException("Match index is still loading, please try again shortly");
+        }
+
+        User user = userDao.findById(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        GeoPoint origin = geoIndex.locate(user.getLocation());
+        if (origin == null) {
+            throw new ApiException("Your location could not be placed on the map: " + user.getLocation());
+        }
+
+        int radius = Math.max(1, Math.min(km, maxNearbyKm));
+        int k = Math.max(1, Math.min(limit, maxTopK));
+        MatchCriteria criteria = geoIndex.expand(MatchCriteria.from(loadPreferences(userId)));
+        RoaringBitmap candidates = resolveCandidates(criteria, userId);
+
+        // Walk the known locations nearest first and take matches from each until k are found
+        Map<Long, Double> distanceById = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> location : geoIndex.locationsWithin(origin, radius).entrySet()) {
+            RoaringBitmap atLocation = matchIndex.candidatesAt(candidates, location.getKey());
+            for (int id : atLocation) {
+                distanceById.put((long) id, location.getValue());
+                if (distanceById.size() >= k) {
+                    break;
+                }
+            }
+            if (distanceById.size() >= k) {
+                break;
+            }
+        }
+
+        Map<Long, User> usersById = userDao.findAllById(distanceById.keySet()).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<NearbyMatchDto> results = new ArrayList<>(distanceById.size());
+        distanceById.forEach((id, distance) -> {
+            User candidate = usersById.get(id);
+            if (candidate != null) {
+                results.add(new NearbyMatchDto(candidate, Math.round(distance * 10) / 10.0));
+            }
+        });
+        return results;
     }
 
-    /**
-     * Convert gender string from preferences to User.Gender enum
-     */
-    private User.Gender convertGenderStringToEnum(String genderString) {
-        if (genderString == null || genderString.trim().isEmpty()) {
-            return null;
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public MatchPreviewDto previewMatches(Long userId, Preferences preferences) {
+        if (!matchIndex.isReady()) {
+            throw new ApiException("Match index is still loading, please try again shortly");
+        }
+
+        // Evaluated straight from the payload: nothing is loaded or saved
+        MatchCriteria criteria = geoIndex.expand(MatchCriteria.from(preferences));
+        RoaringBitmap candidates = resolveCandidates(criteria, userId);
+
+        return new MatchPreviewDto(
+            candidates.getLongCardinality(),
+            facetCounts(candidates, MatchFacet.LOCATION),
+            facetCounts(candidates, MatchFacet.RELIGION),
+            facetCounts(candidates, MatchFacet.PROFESSION));
+    }
+
+    @Override
+    public void checkExportReady() {
+        if (!matchIndex.isReady()) {
+            throw new ApiException("Match index is still loading, please try again shortly");
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportMatches(Long userId, OutputStream out) throws IOException {
+        checkExportReady();
+
+        MatchCriteria criteria = geoIndex.expand(MatchCriteria.from(loadPreferences(userId)));
+        RoaringBitmap candidates = resolveCandidates(criteria, userId);
+
+        // Walk the candidate bitmap in fixed-size batches so only one batch of users is in memory.
+        // Open-in-view binds the request's EntityManager to the streaming thread, so every
+        // loaded user stays managed until the response ends unless each batch is cleared.
+        BatchIterator batches = candidates.getBatchIterator();
+        int[] buffer = new int[exportBatchSize];
+        while (batches.hasNext()) {
+            int count = batches.nextBatch(buffer);
+            List<Long> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add((long) buffer[i]);
+            }
+
+            for (User candidate : userDao.findAllById(ids)) {
+                MatchResultDto line = new MatchResultDto(candidate, criteria.score(candidate, matchWeights));
+                out.write(objectMapper.writeValueAsBytes(line));
+                out.write('\n');
+            }
+            out.flush();
+
+            // Detach the batch so the persistence context does not grow with the export
+            entityManager.clear();
+        }
+    }
+
+    // Ranked matches after the given position: an indexed range read when the user's
+    // matches are materialized, otherwise scored on the fly from the profile columns.
+    // Materialized lists stop at their stored rows, so a page running past the last one
+    // is completed from the index and paging reaches every match countMatches reports.
+    private List<ScoredMatch> rankedPage(Long userId, ScoredMatch after, int size) {
+        boolean materialized = matchMaterializer.isMaterialized(userId);
+        List<ScoredMatch> stored = List.of();
+        if (materialized) {
+            stored = matchMaterializer.readPage(userId, after, size);
+            if (stored.size() == size || !matchIndex.isReady()) {
+                return stored;
+            }
+        } else if (!matchIndex.isReady()) {
+            throw new ApiException("Match index is still loading, please try again shortly");
         }
+
+        MatchCriteria criteria = geoIndex.expand(MatchCriteria.from(loadPreferences(userId)));
+        RoaringBitmap candidates = resolveCandidates(criteria, userId);
+        if (!materialized) {
+            return profileStore.topMatches(criteria, candidates, matchWeights, after, size, null);
+        }
+
+        // Past the stored rows the index carries on from the later of the cursor and the
+        // list's last row, without any stored candidate: live scores can differ from stored
+        // ones, and a stored candidate would otherwise be listed a second time
+        ScoredMatch from = after;
+        for (ScoredMatch row : matchMaterializer.readList(userId)) {
+            candidates.remove(MatchIndex.toKey(row.userId()));
+            if (from == null || ScoredMatch.RANKING.compare(row, from) > 0) {
+                from = row;
+            }
+        }
+
+        List<ScoredMatch> page = new ArrayList<>(stored);
+        page.addAll(profileStore.topMatches(criteria, candidates, matchWeights, from, size - stored.size(), null));
+        return page;
+    }
+
+    // Only this pool gets the rerank bonuses, so it is sized from k rather than the candidate count
+    private int rerankPoolSize(int k) {
+        return k * Math.max(1, rerankFactor);
+    }
+
+    // Shared-interests and co-acceptance bonuses on top of the preference score, best k kept.
+    // Ranked in hundredths of a point so fractional bonuses count; reported in whole points.
+    private List<ScoredMatch> rerank(Long userId, List<ScoredMatch> pool, int k) {
+        List<ScoredMatch> scaled = pool.stream()
+            .map(match -> new ScoredMatch(match.userId(), match.score() * MatchWeights.BONUS_SCALE))
+            .collect(Collectors.toList());
+        return coAcceptanceIndex.rerank(userId, interestIndex.rerank(userId, scaled, scaled.size()), k).stream()
+            .map(match -> new ScoredMatch(match.userId(), Math.round((float) match.score() / MatchWeights.BONUS_SCALE)))
+            .collect(Collectors.toList());
+    }
+
+    private Map<String, Long> facetCounts(RoaringBitmap candidates, MatchFacet facet) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        matchIndex.facetCounts(candidates, facet, maxFacetValues)
+            .forEach((value, count) -> counts.put(profileStore.displayValue(facet, value), count));
+        return counts;
+    }
+
+    // Open age bounds for the SQL fallback, which takes the range as BETWEEN
+    private static int ageMin(MatchCriteria criteria) {
+        return criteria.getAgeMin() != null ? criteria.getAgeMin() : 0;
+    }
+
+    private static int ageMax(MatchCriteria criteria) {
+        return criteria.getAgeMax() != null ? criteria.getAgeMax() : Integer.MAX_VALUE;
+    }
+
+    // Unconstrained sets only occur with the wildcard flag set, so any placeholder will do;
+    // IN needs a non-empty list
+    private static Set<String> orNone(Set<String> values) {
+        return values != null ? values : Set.of("");
+    }
+
+    // Candidates from the index minus everyone the user already contacted, hid or is blocked with
+    private RoaringBitmap resolveCandidates(MatchCriteria criteria, Long userId) {
+        RoaringBitmap candidates = matchIndex.findCandidates(criteria, userId);
+        candidates.andNot(contactIndex.getContacted(userId));
+        candidates.andNot(exclusionIndex.getExcluded(userId));
+        return candidates;
+    }
+
+    private Preferences loadPreferences(Long userId) {
+        // First, check if user exists
+        User user = userDao.findById(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
         
-        try {
-            return User.Gender.valueOf(genderString.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            System.err.println("Invalid gender value in preferences: " + genderString + ", defaulting to null");
-            return null;
+        // Users without stored preferences match on defaults derived from their profile.
+        // Nothing is written here; defaults are persisted at signup or by the backfill job.
+        Preferences preferences = preferencesDao.findByUserId(userId);
+        if (preferences == null) {
+            preferences = preferenceService.buildDefaultPreferences(user);
+        }
+        return preferences;
+    }
+
+    // Load only the ranked users and keep them in ranking order
+    private List<MatchResultDto> hydrate(List<ScoredMatch> ranked) {
+        List<Long> ids = ranked.stream().map(ScoredMatch::userId).collect(Collectors.toList());
+        Map<Long, User> usersById = userDao.findAllById(ids).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<MatchResultDto> results = new ArrayList<>(ranked.size());
+        for (ScoredMatch match : ranked) {
+            User candidate = usersById.get(match.userId());
+            if (candidate != null) {
+                results.add(new MatchResultDto(candidate, match.score()));
+            }
         }
+        return results;
+    }
+    
+    private List<Long> toUserIds(RoaringBitmap candidates) {
+        List<Long> ids = new ArrayList<>(candidates.getCardinality());
+        candidates.forEach((int id) -> ids.add((long) id));
+        return ids;
     }
 }
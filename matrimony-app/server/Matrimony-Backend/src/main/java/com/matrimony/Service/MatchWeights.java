@@ -0,0 +1,46 @@
+package com.matrimony.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+
+/**
+ * Points awarded for each satisfied Preferences field when ranking matches.
+ */
+@Component
+@Getter
+public class MatchWeights {
+
+    // Rerank bonuses are fractions of a weight, so pools are reranked in hundredths of a point
+    public static final int BONUS_SCALE = 100;
+
+    @Value("${match.weight.age:2}")
+    private int age;
+
+    @Value("${match.weight.gender:5}")
+    private int gender;
+
+    @Value("${match.weight.caste:2}")
+    private int caste;
+
+    @Value("${match.weight.religion:3}")
+    private int religion;
+
+    @Value("${match.weight.location:2}")
+    private int location;
+
+    @Value("${match.weight.profession:1}")
+    private int profession;
+
+    @Value("${match.weight.education:1}")
+    private int education;
+
+    // Awarded in full for identical hobbies and bio words, scaled down by their Jaccard similarity
+    @Value("${match.weight.interests:4}")
+    private int interests;
+
+    // Awarded in full to the pool candidate most often accepted alongside the user's connections
+    @Value("${match.weight.co-acceptance:3}")
+    private int coAcceptance;
+}
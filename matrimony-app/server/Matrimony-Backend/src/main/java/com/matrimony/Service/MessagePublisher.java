@@ -0,0 +1,56 @@
+package com.matrimony.Service;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.matrimony.Dto.MessageDto;
+
+/**
+ * Pushes message events to connected STOMP clients. Users are addressed by email,
+ * the principal name StompAuthInterceptor gives their sessions. Inside a transaction
+ * the push waits for the commit, so a client that reacts by loading the conversation
+ * always finds the message; a failed push is only logged since polling still works.
+ */
+@Component
+public class MessagePublisher {
+
+    public static final String MESSAGES_QUEUE = "/queue/messages";
+    public static final String UNREAD_QUEUE = "/queue/unread";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    public void publishMessage(String email, MessageDto message) {
+        afterCommit(() -> send(email, MESSAGES_QUEUE, message));
+    }
+
+    public void publishUnreadCount(String email, long unreadCount) {
+        afterCommit(() -> send(email, UNREAD_QUEUE, Map.of("unreadCount", unreadCount)));
+    }
+
+    private void send(String email, String destination, Object payload) {
+        try {
+            messagingTemplate.convertAndSendToUser(email, destination, payload);
+        } catch (Exception e) {
+            System.err.println("Failed to push " + destination + " to " + email + ": " + e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,25 +1,103 @@
 package com.matrimony.Service;
 
+import com.matrimony.Dao.ConversationDao;
 import com.matrimony.Dao.MessageDao;
 import com.matrimony.Dao.UserDao;
+import com.matrimony.Dto.InboxEntryDto;
+import com.matrimony.Dto.MessageDto;
+import com.matrimony.Dto.MessagePageDto;
 import com.matrimony.Entity.Message;
 import com.matrimony.Entity.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
+import lombok.Getter;
+
 @Service
 public class MessageService {
 
+    // Why a user may not message another; checked by every send path
+    @Getter
+    public enum SendRefusal {
+        NOT_APPROVED("Your profile must be approved by admin before you can send messages"),
+        INACTIVE("Your account must be active to send messages"),
+        BLOCKED("You cannot message this user"),
+        NOT_CONNECTED("You can only send messages to users you are connected with");
+
+        private final String message;
+
+        SendRefusal(String message) {
+            this.message = message;
+        }
+    }
+
     @Autowired
     private MessageDao messageDao;
 
     @Autowired
     private UserDao userDao;
 
-    // Send message
+    @Autowired
+    private ConversationDao conversationDao;
+
+    @Autowired
+    private MessagePublisher messagePublisher;
+
+    @Autowired
+    private PendingRequestService pendingRequestService;
+
+    @Autowired
+    private ExclusionIndex exclusionIndex;
+
+    @Value("${messages.page.max-size:100}")
+    private int maxPageSize;
+
+    // Databases created before the conversations table get it filled from the message history once
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillConversations() {
+        if (conversationDao.count() == 0 && messageDao.count() > 0) {
+            int rows = conversationDao.backfillFromMessages();
+            System.out.println("Conversations backfilled from message history: " + rows);
+        }
+    }
+
+    /**
+     * Whether the sender may message the receiver: an approved, active sender, no block
+     * in either direction, and an accepted connection. Returns null when allowed.
+     */
+    public SendRefusal checkCanSend(User sender, Long receiverId) {
+        if (!Boolean.TRUE.equals(sender.getProfileApproved())) {
+            return SendRefusal.NOT_APPROVED;
+        }
+        if (!Boolean.TRUE.equals(sender.getIsActive())) {
+            return SendRefusal.INACTIVE;
+        }
+        // A block in either direction ends messaging even between connected users
+        if (exclusionIndex.isBlocked(sender.getId(), receiverId)) {
+            return SendRefusal.BLOCKED;
+        }
+        if (!pendingRequestService.isConnected(sender.getId(), receiverId)) {
+            return SendRefusal.NOT_CONNECTED;
+        }
+        return null;
+    }
+
+    // Send message; the pair's conversation row is updated in the same transaction and the
+    // receiver's connected clients get the message and their new unread count once it commits
+    @Transactional
     public Message sendMessage(Long senderId, Long receiverId, String content) {
         User sender = userDao.findById(senderId).orElseThrow(() -> new RuntimeException("Sender not found"));
         User receiver = userDao.findById(receiverId).orElseThrow(() -> new RuntimeException("Receiver not found"));
@@ -31,7 +109,15 @@ public class MessageService {
         message.setTimestamp(LocalDateTime.now());
         message.setRead(false);
 
-        return messageDao.save(message);
+        Message saved = messageDao.save(message);
+        boolean receiverIsLow = receiverId < senderId;
+        conversationDao.recordMessage(Math.min(senderId, receiverId), Math.max(senderId, receiverId),
+                saved.getId(), saved.getTimestamp(), receiverIsLow ? 1 : 0, receiverIsLow ? 0 : 1);
+
+        messagePublisher.publishMessage(receiver.getEmail(), new MessageDto(saved.getId(), senderId, receiverId,
+                saved.getContent(), saved.getTimestamp(), false));
+        messagePublisher.publishUnreadCount(receiver.getEmail(), conversationDao.countUnread(receiverId));
+        return saved;
     }
 
     // Get conversation between two users
@@ -41,30 +127,88 @@ public class MessageService {
         return messageDao.findConversation(user1, user2);
     }
 
+    /**
+     * One page of a conversation: up to limit messages older than beforeId, or the
+     * latest ones when beforeId is null. Returned oldest first.
+     */
+    public MessagePageDto getConversationPage(Long user1Id, Long user2Id, Long beforeId, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        long before = beforeId != null ? beforeId : Long.MAX_VALUE;
+
+        // One ordered range read per direction, merged newest first; one extra row tells
+        // whether older messages remain
+        PageRequest rows = PageRequest.of(0, size + 1);
+        List<MessageDto> page = new ArrayList<>(messageDao.findDirectionPage(user1Id, user2Id, before, rows));
+        page.addAll(messageDao.findDirectionPage(user2Id, user1Id, before, rows));
+        page.sort(Comparator.comparing(MessageDto::getId).reversed());
+
+        Long nextBeforeId = null;
+        if (page.size() > size) {
+            page = new ArrayList<>(page.subList(0, size));
+            nextBeforeId = page.get(size - 1).getId();
+        }
+        Collections.reverse(page);
+        return new MessagePageDto(page, nextBeforeId);
+    }
+
     // Get all conversations for a user
     public List<Message> getConversations(Long userId) {
         User user = userDao.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
         return messageDao.findConversationsByUser(user);
     }
 
-    // Mark messages as read when opened
-    public void markMessagesAsRead(Long receiverId, Long senderId) {
-        User receiver = userDao.findById(receiverId).orElseThrow(() -> new RuntimeException("Receiver not found"));
-        User sender = userDao.findById(senderId).orElseThrow(() -> new RuntimeException("Sender not found"));
+    // Inbox: one entry per peer with the latest message and unread count, read from the conversations table
+    public List<InboxEntryDto> getInbox(Long userId) {
+        List<InboxEntryDto> inbox = new ArrayList<>();
+        for (Object[] row : conversationDao.findInbox(userId)) {
+            inbox.add(new InboxEntryDto(
+                    ((Number) row[0]).longValue(),
+                    (String) row[1],
+                    (String) row[2],
+                    ((Number) row[3]).longValue(),
+                    ((Number) row[4]).longValue(),
+                    (String) row[5],
+                    toLocalDateTime(row[6]),
+                    row[7] != null ? ((Number) row[7]).longValue() : 0));
+        }
+        return inbox;
+    }
 
-        List<Message> messages = messageDao.findConversation(sender, receiver);
+    /**
+     * Mark the sender's unread messages to the receiver as read with one UPDATE, up to
+     * and including message upToId when given, and take them off the receiver's unread
+     * counter. Returns how many messages were marked. The receiver's other open clients
+     * are sent the lowered unread count.
+     */
+    @Transactional
+    public int markMessagesAsRead(Long receiverId, Long senderId, Long upToId) {
+        int marked = messageDao.markRead(receiverId, senderId, upToId != null ? upToId : Long.MAX_VALUE);
 
-        messages.forEach(message -> {
-            if (!message.isRead() && message.getReceiver().getId().equals(receiverId)) {
-                message.setRead(true);
-                messageDao.save(message);
+        if (marked > 0) {
+            Long low = Math.min(receiverId, senderId);
+            Long high = Math.max(receiverId, senderId);
+            if (receiverId.equals(low)) {
+                conversationDao.markReadByLow(low, high, marked);
+            } else {
+                conversationDao.markReadByHigh(low, high, marked);
             }
-        });
+            userDao.findById(receiverId).ifPresent(receiver ->
+                    messagePublisher.publishUnreadCount(receiver.getEmail(), conversationDao.countUnread(receiverId)));
+        }
+        return marked;
+    }
+
+    // Native queries hand back TIMESTAMP columns as java.sql.Timestamp or LocalDateTime depending on the driver
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
     }
 
     // Get unread message count for a user
     public int getUnreadMessageCount(Long userId) {
-        User user = userDao.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
-        return messageDao.countUnreadMessages(user);
+        userDao.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+        return (int) conversationDao.countUnread(userId);
     }
 }
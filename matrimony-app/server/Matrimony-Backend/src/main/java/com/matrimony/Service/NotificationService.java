@@ -0,0 +1,65 @@
+package com.matrimony.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.matrimony.Dao.NotificationDao;
+import com.matrimony.Entity.Notification;
+import com.matrimony.Entity.SavedSearch;
+import com.matrimony.Entity.User;
+
+@Service
+public class NotificationService {
+
+    @Autowired
+    private NotificationDao notificationDao;
+
+    @Value("${notifications.page.max-size:50}")
+    private int maxPageSize;
+
+    /**
+     * Tell the owners of the given saved searches about a newly approved profile.
+     * Runs on the async executor so approving a profile does not wait on the inserts.
+     */
+    @Async
+    @Transactional
+    public void notifySavedSearchMatches(User profile, List<SavedSearch> searches) {
+        try {
+            String who = profile.getFirstName() + " " + profile.getLastName();
+            List<Notification> notifications = searches.stream()
+                    .map(search -> new Notification(search.getUserId(), Notification.TYPE_SAVED_SEARCH_MATCH,
+                            "New profile matching your saved search \"" + displayName(search) + "\": " + who,
+                            profile.getId()))
+                    .collect(Collectors.toList());
+            notificationDao.saveAll(notifications);
+            System.out.println("Queued " + notifications.size() + " saved search notifications for user " + profile.getId());
+        } catch (Exception e) {
+            System.err.println("Error creating saved search notifications for user " + profile.getId() + ": " + e.getMessage());
+        }
+    }
+
+    public List<Notification> getNotifications(Long userId, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        return notificationDao.findByUserIdOrderByIdDesc(userId, PageRequest.of(0, size));
+    }
+
+    public long countUnread(Long userId) {
+        return notificationDao.countByUserIdAndReadFalse(userId);
+    }
+
+    @Transactional
+    public int markAllRead(Long userId) {
+        return notificationDao.markAllRead(userId);
+    }
+
+    private static String displayName(SavedSearch search) {
+        return search.getName() != null && !search.getName().isBlank() ? search.getName() : "Search #" + search.getId();
+    }
+}
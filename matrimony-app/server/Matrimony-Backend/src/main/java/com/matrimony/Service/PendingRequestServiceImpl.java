@@ -4,23 +4,28 @@ import com.matrimony.Dao.PendingRequestDao;
 import com.matrimony.Entity.PendingRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 public class PendingRequestServiceImpl implements PendingRequestService {
 
   @Autowired private PendingRequestDao dao;
+  @Autowired private MatchMaintenanceService matchMaintenanceService;
+  @Autowired private ExclusionIndex exclusionIndex;
 
   @Override
   public void saveRequest(PendingRequest request) {
-    dao.save(request);
+    PendingRequest saved = dao.save(request);
+    matchMaintenanceService.onRequestChanged(saved);
   }
 
   @Override
   public List<PendingRequest> getPendingRequestsByUserId(Long userId) {
     return dao.findAll() // filter in code or add query for status=PENDING
               .stream().filter(r -> r.getReceiver().getId().equals(userId)
-                                  && r.getStatus().equals(PendingRequest.STATUS_PENDING))
+                                  && r.getStatus().equals(PendingRequest.STATUS_PENDING)
+                                  && !exclusionIndex.isExcluded(userId, r.getSender().getId()))
               .toList();
   }
 
@@ -28,7 +33,9 @@ public class PendingRequestServiceImpl implements PendingRequestService {
   public void updateRequestStatus(Long requestId, String status) {
     PendingRequest r = dao.findById(requestId).orElseThrow();
     r.setStatus(status);
+    r.setRespondedAt(PendingRequest.STATUS_PENDING.equals(status) ? null : LocalDateTime.now());
     dao.save(r);
+    matchMaintenanceService.onRequestChanged(r);
   }
 
   @Override
@@ -0,0 +1,231 @@
+package com.matrimony.Service;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.matrimony.Dao.PreferencesDao;
+import com.matrimony.Dao.UserDao;
+import com.matrimony.Entity.Preferences;
+import com.matrimony.Entity.User;
+
+/**
+ * Reverse index over Preferences: for a given profile it answers "whose
+ * preferences would this profile satisfy" with one bitmap union, without
+ * re-evaluating every user's preferences. Users without a stored row are indexed
+ * on the defaults derived from their profile, the same ones the match queries use.
+ */
+@Component
+public class PreferenceIndex {
+
+    @Autowired
+    private PreferencesDao preferencesDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private GeoIndex geoIndex;
+
+    private static final int MIN_INDEXED_AGE = 0;
+    private static final int MAX_INDEXED_AGE = 120;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Viewers with an unconstrained filter field accept every profile
+    private final RoaringBitmap acceptsEveryone = new RoaringBitmap();
+
+    private final Map<Integer, RoaringBitmap> byAge = new HashMap<>();
+    private final Map<User.Gender, RoaringBitmap> byGender = new EnumMap<>(User.Gender.class);
+    private final Map<String, RoaringBitmap> byCaste = new HashMap<>();
+    private final Map<String, RoaringBitmap> byReligion = new HashMap<>();
+    private final Map<String, RoaringBitmap> byLocation = new HashMap<>();
+    private final Map<String, RoaringBitmap> byProfession = new HashMap<>();
+
+    private final Map<Integer, MatchCriteria> criteriaByViewer = new HashMap<>();
+
+    // Viewers indexed on derived defaults, re-derived when their profile changes
+    private final RoaringBitmap derived = new RoaringBitmap();
+
+    // Runs after the profiles are loaded, so distance preferences see every known location
+    public void rebuild() {
+        List<Preferences> all = preferencesDao.findAllWithUser();
+        List<User> withoutPreferences = userDao.findUsersWithoutPreferences();
+
+        lock.writeLock().lock();
+        try {
+            acceptsEveryone.clear();
+            byAge.clear();
+            byGender.clear();
+            byCaste.clear();
+            byReligion.clear();
+            byLocation.clear();
+            byProfession.clear();
+            criteriaByViewer.clear();
+            derived.clear();
+
+            for (Preferences preferences : all) {
+                add(MatchIndex.toKey(preferences.getUser().getId()), geoIndex.expand(MatchCriteria.from(preferences)));
+            }
+            for (User user : withoutPreferences) {
+                int key = MatchIndex.toKey(user.getId());
+                add(key, defaultCriteria(user));
+                derived.add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        System.out.println("Preference index built with " + all.size() + " preference sets and "
+                + withoutPreferences.size() + " derived defaults");
+    }
+
+    public void reindex(Long viewerId, MatchCriteria criteria) {
+        int key = MatchIndex.toKey(viewerId);
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(key);
+            add(key, criteria);
+            derived.remove(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-derive the defaults of a user indexed without stored preferences after their
+     * profile changed. Returns the new criteria, or null when the user has stored ones.
+     */
+    public MatchCriteria reindexDefaults(User user) {
+        int key = MatchIndex.toKey(user.getId());
+
+        lock.writeLock().lock();
+        try {
+            if (!derived.contains(key)) {
+                return null;
+            }
+            MatchCriteria criteria = defaultCriteria(user);
+            removeInternal(key);
+            add(key, criteria);
+            return criteria;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public MatchCriteria getCriteria(Long viewerId) {
+        lock.readLock().lock();
+        try {
+            return criteriaByViewer.get(MatchIndex.toKey(viewerId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Viewers whose stored or derived preferences the given profile satisfies.
+     */
+    public RoaringBitmap findViewersAccepting(User profile) {
+        RoaringBitmap result;
+
+        lock.readLock().lock();
+        try {
+            result = FastAggregation.or(
+                    acceptsEveryone,
+                    lookup(byAge, profile.getAge()),
+                    lookup(byGender, profile.getGender()),
+                    lookup(byCaste, MatchIndex.normalize(profile.getCaste())),
+                    lookup(byReligion, MatchIndex.normalize(profile.getReligion())),
+                    lookup(byLocation, MatchIndex.normalize(profile.getLocation())),
+                    lookup(byProfession, MatchIndex.normalize(profile.getProfession())));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        result.remove(MatchIndex.toKey(profile.getId()));
+        return result;
+    }
+
+    // Callers must hold the write lock
+    private void add(int key, MatchCriteria criteria) {
+        criteriaByViewer.put(key, criteria);
+
+        if (criteria.hasWildcardFilter()) {
+            acceptsEveryone.add(key);
+            return;
+        }
+        addAll(byAge, acceptedAges(criteria), key);
+        addAll(byGender, Set.of(criteria.getGender()), key);
+        addAll(byCaste, criteria.getCastes(), key);
+        addAll(byReligion, criteria.getReligions(), key);
+        addAll(byLocation, criteria.getLocations(), key);
+        addAll(byProfession, criteria.getProfessions(), key);
+    }
+
+    // Callers must hold the write lock
+    private void removeInternal(int key) {
+        MatchCriteria criteria = criteriaByViewer.remove(key);
+        if (criteria == null) {
+            return;
+        }
+
+        if (criteria.hasWildcardFilter()) {
+            acceptsEveryone.remove(key);
+            return;
+        }
+        removeAll(byAge, acceptedAges(criteria), key);
+        removeAll(byGender, Set.of(criteria.getGender()), key);
+        removeAll(byCaste, criteria.getCastes(), key);
+        removeAll(byReligion, criteria.getReligions(), key);
+        removeAll(byLocation, criteria.getLocations(), key);
+        removeAll(byProfession, criteria.getProfessions(), key);
+    }
+
+    private MatchCriteria defaultCriteria(User user) {
+        return geoIndex.expand(MatchCriteria.from(PreferenceServiceImpl.defaultsFor(user)));
+    }
+
+    // A viewer with an age range is filed under every age in it, clamped to plausible ages
+    private static Set<Integer> acceptedAges(MatchCriteria criteria) {
+        int from = Math.max(criteria.getAgeMin() != null ? criteria.getAgeMin() : MIN_INDEXED_AGE, MIN_INDEXED_AGE);
+        int to = Math.min(criteria.getAgeMax() != null ? criteria.getAgeMax() : MAX_INDEXED_AGE, MAX_INDEXED_AGE);
+        Set<Integer> ages = new HashSet<>();
+        for (int age = from; age <= to; age++) {
+            ages.add(age);
+        }
+        return ages;
+    }
+
+    private static <K> void addAll(Map<K, RoaringBitmap> index, Set<K> values, int key) {
+        for (K value : values) {
+            index.computeIfAbsent(value, v -> new RoaringBitmap()).add(key);
+        }
+    }
+
+    private static <K> void removeAll(Map<K, RoaringBitmap> index, Set<K> values, int key) {
+        for (K value : values) {
+            RoaringBitmap bitmap = index.get(value);
+            if (bitmap != null) {
+                bitmap.remove(key);
+                if (bitmap.isEmpty()) {
+                    index.remove(value);
+                }
+            }
+        }
+    }
+
+    private static <K> RoaringBitmap lookup(Map<K, RoaringBitmap> index, K value) {
+        RoaringBitmap bitmap = value == null ? null : index.get(value);
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+}
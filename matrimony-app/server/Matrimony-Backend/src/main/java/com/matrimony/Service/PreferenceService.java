@@ -12,6 +12,9 @@ public interface PreferenceService {
 
 	Preferences savePreferences(Preferences preferences, Long id);
 
+	// Defaults derived from the user's own profile; not persisted
+	Preferences buildDefaultPreferences(User user);
+
 //	List<UserRegisterDto> findMatchingUsers(Long userId);
 
 }
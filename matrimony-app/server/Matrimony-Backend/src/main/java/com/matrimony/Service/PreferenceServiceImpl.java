@@ -1,8 +1,12 @@
 package com.matrimony.Service;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.matrimony.CustomExceptions.ApiException;
 import com.matrimony.Dao.PreferencesDao;
 import com.matrimony.Dao.UserDao;
 import com.matrimony.Entity.Preferences;
@@ -20,6 +24,9 @@ public class PreferenceServiceImpl implements PreferenceService {
     @Autowired
     private UserDao userDao;
 
+    @Autowired
+    private MatchMaintenanceService matchMaintenanceService;
+
     @Override
     public Preferences savePreferences(Preferences preferences, Long id) {
         User user = userDao.findById(id)
@@ -37,8 +44,70 @@ public class PreferenceServiceImpl implements PreferenceService {
         existingPreferences.setEducation(preferences.getEducation());
         existingPreferences.setProfession(preferences.getProfession());
         existingPreferences.setGender(preferences.getGender());
+        if (preferences.getAgeMin() != null && preferences.getAgeMax() != null
+                && preferences.getAgeMin() > preferences.getAgeMax()) {
+            throw new ApiException("Minimum age cannot be greater than maximum age");
+        }
+        existingPreferences.setAgeMin(preferences.getAgeMin());
+        existingPreferences.setAgeMax(preferences.getAgeMax());
+        existingPreferences.setWithinKm(preferences.getWithinKm());
+        replaceValues(existingPreferences.getLocations(), preferences.getLocations());
+        replaceValues(existingPreferences.getReligions(), preferences.getReligions());
+        replaceValues(existingPreferences.getCastes(), preferences.getCastes());
+        replaceValues(existingPreferences.getEducations(), preferences.getEducations());
+        replaceValues(existingPreferences.getProfessions(), preferences.getProfessions());
         existingPreferences.setUser(user);
 
-        return preferenceDao.save(existingPreferences);
+        Preferences savedPreferences = preferenceDao.save(existingPreferences);
+
+        // Only this user's outbound matches depend on their preferences
+        matchMaintenanceService.onPreferencesChanged(savedPreferences);
+        return savedPreferences;
+    }
+
+    @Override
+    public Preferences buildDefaultPreferences(User user) {
+        return defaultsFor(user);
+    }
+
+    // Static so the preference index can derive the same defaults without a dependency cycle
+    static Preferences defaultsFor(User user) {
+        Preferences defaultPreferences = new Preferences();
+        
+        // Use user's own info as defaults
+        defaultPreferences.setAge(user.getAge() != null ? user.getAge() : 25);
+        defaultPreferences.setLocation(user.getLocation() != null ? user.getLocation() : "Any");
+        defaultPreferences.setReligion(user.getReligion() != null ? user.getReligion() : "Any");
+        defaultPreferences.setCaste(user.getCaste() != null ? user.getCaste() : "Any");
+        defaultPreferences.setEducation(user.getEducation() != null ? user.getEducation() : "Any");
+        defaultPreferences.setProfession(user.getProfession() != null ? user.getProfession() : "Any");
+        
+        // Look for opposite gender
+        if (user.getGender() == User.Gender.MALE) {
+            defaultPreferences.setGender("FEMALE");
+        } else if (user.getGender() == User.Gender.FEMALE) {
+            defaultPreferences.setGender("MALE");
+        } else {
+            defaultPreferences.setGender("ANY");
+        }
+        
+        defaultPreferences.setUser(user);
+        return defaultPreferences;
+    }
+
+    // Update the managed collection in place so Hibernate rewrites only its rows.
+    // Values differing only in case are one value to MySQL's collation, keep the first.
+    private static void replaceValues(Set<String> target, Set<String> values) {
+        target.clear();
+        if (values == null) {
+            return;
+        }
+
+        Set<String> seen = new HashSet<>();
+        for (String value : values) {
+            if (value != null && !value.trim().isEmpty() && seen.add(value.trim().toLowerCase())) {
+                target.add(value.trim());
+            }
+        }
     }
 }
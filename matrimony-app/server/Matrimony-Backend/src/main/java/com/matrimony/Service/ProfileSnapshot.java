@@ -0,0 +1,146 @@
+package com.matrimony.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.matrimony.Dao.UserDao;
+
+/**
+ * Versioned on-disk copy of ColumnarProfileStore so a restarted node can skip the
+ * full profile load. The file is memory-mapped on boot and only users changed
+ * after its watermark are read from the database.
+ *
+ * Layout: magic, format version, watermark time, watermark max user id, CRC32 of
+ * the payload, then the store's own payload (dictionaries and columns).
+ */
+@Component
+public class ProfileSnapshot {
+
+    private static final int MAGIC = 0x4D50534E; // "MPSN"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES * 3;
+
+    // updated_on is stamped by each node's clock, so reconcile a little further back
+    private static final Duration CLOCK_MARGIN = Duration.ofMinutes(5);
+
+    @Autowired
+    private UserDao userDao;
+
+    @Value("${match.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${match.snapshot.path:match-snapshot/profiles.bin}")
+    private String path;
+
+    /**
+     * Point from which a later boot has to re-read users: everything updated at or
+     * after takenAt, plus every id above maxUserId.
+     */
+    public record Watermark(LocalDateTime takenAt, long maxUserId) {
+    }
+
+    // Taken before reading profiles, so anything written during the read is reconciled again
+    public Watermark currentWatermark() {
+        return new Watermark(LocalDateTime.now().minus(CLOCK_MARGIN), userDao.findMaxId());
+    }
+
+    /**
+     * Load the snapshot into the store. Returns its watermark, or null when there is
+     * no usable snapshot and the caller has to build from the database.
+     */
+    public Watermark load(ColumnarProfileStore store) {
+        Path file = Paths.get(path);
+        if (!enabled || !Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                System.err.println("Ignoring match snapshot " + file + ": not a snapshot file");
+                return null;
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                System.err.println("Ignoring match snapshot " + file + ": format version " + version);
+                return null;
+            }
+
+            LocalDateTime takenAt = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+            long maxUserId = buffer.getLong();
+            long checksum = buffer.getLong();
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate());
+            if (crc.getValue() != checksum) {
+                System.err.println("Ignoring match snapshot " + file + ": checksum mismatch");
+                return null;
+            }
+
+            store.readFrom(buffer);
+            return new Watermark(takenAt, maxUserId);
+        } catch (Exception e) {
+            System.err.println("Error loading match snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Write to a temporary file and rename, so a crash never leaves a half-written snapshot
+    public void write(ColumnarProfileStore store, Watermark watermark) {
+        if (!enabled) {
+            return;
+        }
+
+        Path file = Paths.get(path);
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(payload)) {
+                store.writeTo(out);
+            }
+            byte[] bytes = payload.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC);
+            header.putInt(FORMAT_VERSION);
+            header.putLong(watermark.takenAt().toEpochSecond(ZoneOffset.UTC));
+            header.putLong(watermark.maxUserId());
+            header.putLong(crc.getValue());
+            header.flip();
+
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "profiles", ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(header);
+                channel.write(ByteBuffer.wrap(bytes));
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            System.out.println("Match snapshot written to " + file + " (" + (HEADER_BYTES + bytes.length) + " bytes)");
+        } catch (IOException e) {
+            System.err.println("Error writing match snapshot " + file + ": " + e.getMessage());
+        }
+    }
+}
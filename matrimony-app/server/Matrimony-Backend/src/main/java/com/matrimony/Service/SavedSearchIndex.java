@@ -0,0 +1,246 @@
+package com.matrimony.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.matrimony.Dao.SavedSearchDao;
+import com.matrimony.Entity.SavedSearch;
+import com.matrimony.Entity.User;
+
+/**
+ * Percolator over saved searches: given a profile, which searches does it satisfy.
+ * Every search must match on all of its filled-in fields, so a probe starts from
+ * all searches and removes, per field, the ones constrained to a different value.
+ * That is one bitmap difference per field, however many searches there are.
+ */
+@Component
+public class SavedSearchIndex {
+
+    private static final int MIN_INDEXED_AGE = 0;
+    private static final int MAX_INDEXED_AGE = 120;
+
+    @Autowired
+    private SavedSearchDao savedSearchDao;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Field age = new Field();
+    private final Field gender = new Field();
+    private final Field religion = new Field();
+    private final Field caste = new Field();
+    private final Field location = new Field();
+    private final Field profession = new Field();
+    private final Field education = new Field();
+
+    private final Map<Integer, SavedSearch> searches = new HashMap<>();
+
+    // Searches constrained on one field, and which of them accept each value
+    private static final class Field {
+        final RoaringBitmap constrained = new RoaringBitmap();
+        final Map<String, RoaringBitmap> byValue = new HashMap<>();
+
+        void add(int key, String value) {
+            constrained.add(key);
+            byValue.computeIfAbsent(value, v -> new RoaringBitmap()).add(key);
+        }
+
+        void remove(int key, String value) {
+            constrained.remove(key);
+            RoaringBitmap accepting = byValue.get(value);
+            if (accepting != null) {
+                accepting.remove(key);
+                if (accepting.isEmpty()) {
+                    byValue.remove(value);
+                }
+            }
+        }
+
+        // Searches that constrain this field and do not accept the value
+        RoaringBitmap rejecting(String value) {
+            RoaringBitmap accepting = value != null ? byValue.get(value) : null;
+            return accepting != null ? RoaringBitmap.andNot(constrained, accepting) : constrained.clone();
+        }
+
+        void clear() {
+            constrained.clear();
+            byValue.clear();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<SavedSearch> stored = savedSearchDao.findAll();
+
+        lock.writeLock().lock();
+        try {
+            all.clear();
+            for (Field field : fields()) {
+                field.clear();
+            }
+            searches.clear();
+            stored.forEach(this::addInternal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        System.out.println("Saved search index built with " + stored.size() + " searches");
+    }
+
+    // Saved search created or edited
+    public void index(SavedSearch search) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(MatchIndex.toKey(search.getId()));
+            addInternal(search);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long searchId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(MatchIndex.toKey(searchId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saved searches the profile satisfies, excluding the profile owner's own.
+     */
+    public List<SavedSearch> findSatisfiedBy(User profile) {
+        List<SavedSearch> matched = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = all.clone();
+            result.andNot(FastAggregation.or(
+                    ageRejecting(profile.getAge()),
+                    gender.rejecting(profile.getGender() != null ? profile.getGender().name() : null),
+                    religion.rejecting(MatchIndex.normalize(profile.getReligion())),
+                    caste.rejecting(MatchIndex.normalize(profile.getCaste())),
+                    location.rejecting(MatchIndex.normalize(profile.getLocation())),
+                    profession.rejecting(MatchIndex.normalize(profile.getProfession())),
+                    education.rejecting(MatchIndex.normalize(profile.getEducation()))));
+
+            result.forEach((int key) -> {
+                SavedSearch search = searches.get(key);
+                if (!search.getUserId().equals(profile.getId())) {
+                    matched.add(search);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matched;
+    }
+
+    // Callers must hold a lock. Ages outside the indexed span are rare, so the age-constrained
+    // searches are checked against their bounds directly for those
+    private RoaringBitmap ageRejecting(Integer profileAge) {
+        if (profileAge == null || (profileAge >= MIN_INDEXED_AGE && profileAge <= MAX_INDEXED_AGE)) {
+            return age.rejecting(profileAge != null ? String.valueOf(profileAge) : null);
+        }
+
+        RoaringBitmap rejecting = new RoaringBitmap();
+        age.constrained.forEach((int key) -> {
+            SavedSearch search = searches.get(key);
+            if ((search.getAgeMin() != null && profileAge < search.getAgeMin())
+                    || (search.getAgeMax() != null && profileAge > search.getAgeMax())) {
+                rejecting.add(key);
+            }
+        });
+        return rejecting;
+    }
+
+    private Field[] fields() {
+        return new Field[] { age, gender, religion, caste, location, profession, education };
+    }
+
+    // Callers must hold the write lock
+    private void addInternal(SavedSearch search) {
+        int key = MatchIndex.toKey(search.getId());
+        all.add(key);
+        searches.put(key, search);
+
+        if (search.getAgeMin() != null || search.getAgeMax() != null) {
+            forEachAge(search, a -> age.add(key, String.valueOf(a)));
+            age.constrained.add(key);
+        }
+        User.Gender wanted = MatchCriteria.toGender(search.getGender());
+        if (wanted != null) {
+            gender.add(key, wanted.name());
+        }
+        addValue(religion, key, search.getReligion());
+        addValue(caste, key, search.getCaste());
+        addValue(location, key, search.getLocation());
+        addValue(profession, key, search.getProfession());
+        addValue(education, key, search.getEducation());
+    }
+
+    // Callers must hold the write lock
+    private void removeInternal(int key) {
+        SavedSearch search = searches.remove(key);
+        if (search == null) {
+            return;
+        }
+        all.remove(key);
+
+        forEachAge(search, a -> age.remove(key, String.valueOf(a)));
+        age.constrained.remove(key);
+        User.Gender wanted = MatchCriteria.toGender(search.getGender());
+        if (wanted != null) {
+            gender.remove(key, wanted.name());
+        }
+        removeValue(religion, key, search.getReligion());
+        removeValue(caste, key, search.getCaste());
+        removeValue(location, key, search.getLocation());
+        removeValue(profession, key, search.getProfession());
+        removeValue(education, key, search.getEducation());
+    }
+
+    private static void addValue(Field field, int key, String raw) {
+        String value = searchValue(raw);
+        if (value != null) {
+            field.add(key, value);
+        }
+    }
+
+    private static void removeValue(Field field, int key, String raw) {
+        String value = searchValue(raw);
+        if (value != null) {
+            field.remove(key, value);
+        }
+    }
+
+    // Normalized field value, or null when blank or "Any", which leave the field out of the search
+    private static String searchValue(String raw) {
+        String value = MatchIndex.normalize(raw);
+        return value == null || value.isEmpty() || value.equals("any") ? null : value;
+    }
+
+    // Each indexed age in the search's range; open ends extend to the lowest or highest indexed age
+    private static void forEachAge(SavedSearch search, IntConsumer action) {
+        if (search.getAgeMin() == null && search.getAgeMax() == null) {
+            return;
+        }
+        int from = Math.max(MIN_INDEXED_AGE, search.getAgeMin() != null ? search.getAgeMin() : MIN_INDEXED_AGE);
+        int to = Math.min(MAX_INDEXED_AGE, search.getAgeMax() != null ? search.getAgeMax() : MAX_INDEXED_AGE);
+        for (int a = from; a <= to; a++) {
+            action.accept(a);
+        }
+    }
+}
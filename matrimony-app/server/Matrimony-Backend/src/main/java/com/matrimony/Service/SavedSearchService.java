@@ -0,0 +1,91 @@
+package com.matrimony.Service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.matrimony.CustomExceptions.ApiException;
+import com.matrimony.CustomExceptions.ResourceNotFoundException;
+import com.matrimony.Dao.SavedSearchDao;
+import com.matrimony.Entity.SavedSearch;
+import com.matrimony.Entity.User;
+
+@Service
+public class SavedSearchService {
+
+    @Autowired
+    private SavedSearchDao savedSearchDao;
+
+    @Autowired
+    private SavedSearchIndex savedSearchIndex;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Value("${saved-search.max-per-user:10}")
+    private int maxPerUser;
+
+    public SavedSearch createSearch(Long userId, SavedSearch search) {
+        if (savedSearchDao.countByUserId(userId) >= maxPerUser) {
+            throw new ApiException("You can keep at most " + maxPerUser + " saved searches");
+        }
+        if (search.getAgeMin() != null && search.getAgeMax() != null && search.getAgeMin() > search.getAgeMax()) {
+            throw new ApiException("Minimum age cannot be greater than maximum age");
+        }
+
+        search.setId(null);
+        search.setUserId(userId);
+        search.setName(search.getName() != null ? search.getName().trim() : null);
+        search.setGender(clean(search.getGender()));
+        search.setReligion(clean(search.getReligion()));
+        search.setCaste(clean(search.getCaste()));
+        search.setLocation(clean(search.getLocation()));
+        search.setProfession(clean(search.getProfession()));
+        search.setEducation(clean(search.getEducation()));
+
+        SavedSearch saved = savedSearchDao.save(search);
+        savedSearchIndex.index(saved);
+        return saved;
+    }
+
+    public List<SavedSearch> getSearches(Long userId) {
+        return savedSearchDao.findByUserIdOrderByIdAsc(userId);
+    }
+
+    public void deleteSearch(Long userId, Long searchId) {
+        SavedSearch search = savedSearchDao.findById(searchId)
+                .filter(s -> s.getUserId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Saved search not found with ID: " + searchId));
+        savedSearchDao.delete(search);
+        savedSearchIndex.remove(searchId);
+    }
+
+    /**
+     * Alert the owners of every saved search a newly approved profile satisfies.
+     * The searches come from one percolator probe; the notifications are written asynchronously.
+     */
+    public void onProfileApproved(User profile) {
+        try {
+            if (!MatchIndex.isMatchable(profile)) {
+                return;
+            }
+            List<SavedSearch> matched = savedSearchIndex.findSatisfiedBy(profile);
+            if (!matched.isEmpty()) {
+                notificationService.notifySavedSearchMatches(profile, matched);
+            }
+        } catch (Exception e) {
+            // Approval already happened; a missed alert is not worth failing it for
+            System.err.println("Error matching saved searches for user " + profile.getId() + ": " + e.getMessage());
+        }
+    }
+
+    // Blank and "Any" mean the field is not part of the search
+    private static String clean(String value) {
+        if (value == null || value.isBlank() || value.trim().equalsIgnoreCase("any")) {
+            return null;
+        }
+        return value.trim();
+    }
+}
@@ -0,0 +1,30 @@
+package com.matrimony.Service;
+
+import java.util.Arrays;
+
+/**
+ * Plain loop implementation of ScoringKernel, one column at a time so each
+ * array is read sequentially.
+ */
+public class ScalarScoringKernel implements ScoringKernel {
+
+    @Override
+    public void score(int[][] columns, int[][] lows, int[][] highs, int[] weights, int base, int from, int count, int[] out) {
+        Arrays.fill(out, 0, count, base);
+        for (int f = 0; f < columns.length; f++) {
+            int[] column = columns[f];
+            int[] low = lows[f];
+            int[] high = highs[f];
+            int weight = weights[f];
+            for (int slot = 0; slot < count; slot++) {
+                int value = column[from + slot];
+                for (int r = 0; r < low.length; r++) {
+                    if (value >= low[r] && value <= high[r]) {
+                        out[slot] += weight;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+}
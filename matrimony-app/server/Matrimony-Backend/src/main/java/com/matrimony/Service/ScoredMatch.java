@@ -0,0 +1,38 @@
+package com.matrimony.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+
+import com.matrimony.CustomExceptions.ApiException;
+
+/**
+ * A candidate user id with its match score.
+ */
+public record ScoredMatch(long userId, int score) {
+
+    // Best match first; equal scores are ordered by user id so the ranking is stable
+    public static final Comparator<ScoredMatch> RANKING =
+            Comparator.comparingInt(ScoredMatch::score).reversed()
+                    .thenComparingLong(ScoredMatch::userId);
+
+    /**
+     * Encode this position as a page cursor. Keyed on score plus user id so a page
+     * boundary stays put when new profiles are approved in between requests.
+     */
+    public String toCursor() {
+        String raw = score + ":" + userId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ScoredMatch fromCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new ScoredMatch(Long.parseLong(raw.substring(separator + 1)),
+                                   Integer.parseInt(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ApiException("Invalid match cursor");
+        }
+    }
+}
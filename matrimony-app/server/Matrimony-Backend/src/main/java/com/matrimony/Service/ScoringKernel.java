@@ -0,0 +1,34 @@
+package com.matrimony.Service;
+
+/**
+ * Batch scoring over the columns of ColumnarProfileStore. For every slot in
+ * [from, from + count) the kernel writes, at out[slot - from], base plus the weight
+ * of each column whose value falls in one of that column's inclusive ranges
+ * lows[f][r]..highs[f][r].
+ */
+public interface ScoringKernel {
+
+    void score(int[][] columns, int[][] lows, int[][] highs, int[] weights, int base, int from, int count, int[] out);
+
+    /**
+     * Kernel for the match.scoring.engine setting: "vector" uses the incubating
+     * Vector API when the application was built with the vector Maven profile and the
+     * JVM was started with the module, anything else is scalar.
+     */
+    static ScoringKernel forEngine(String engine) {
+        if ("vector".equalsIgnoreCase(engine)) {
+            if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                System.err.println("match.scoring.engine=vector needs --add-modules jdk.incubator.vector, using scalar scoring");
+            } else {
+                try {
+                    // Looked up by name since the default build does not compile it
+                    return (ScoringKernel) Class.forName("com.matrimony.Service.VectorScoringKernel")
+                            .getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException e) {
+                    System.err.println("match.scoring.engine=vector needs a build with -Pvector, using scalar scoring");
+                }
+            }
+        }
+        return new ScalarScoringKernel();
+    }
+}
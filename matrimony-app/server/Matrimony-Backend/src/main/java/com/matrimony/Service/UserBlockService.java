@@ -0,0 +1,69 @@
+package com.matrimony.Service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.matrimony.CustomExceptions.ApiException;
+import com.matrimony.CustomExceptions.ResourceNotFoundException;
+import com.matrimony.Dao.UserBlockDao;
+import com.matrimony.Dao.UserDao;
+import com.matrimony.Entity.UserBlock;
+
+@Service
+public class UserBlockService {
+
+    @Autowired
+    private UserBlockDao userBlockDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private ExclusionIndex exclusionIndex;
+
+    @Autowired
+    private MatchMaintenanceService matchMaintenanceService;
+
+    public UserBlock hide(Long userId, Long otherUserId) {
+        return save(userId, otherUserId, UserBlock.TYPE_HIDE);
+    }
+
+    public UserBlock block(Long userId, Long otherUserId) {
+        return save(userId, otherUserId, UserBlock.TYPE_BLOCK);
+    }
+
+    // Undo a hide or block; the profile may show up in matches again
+    public void remove(Long userId, Long otherUserId) {
+        UserBlock existing = userBlockDao.findByUserIdAndBlockedUserId(userId, otherUserId)
+                .orElseThrow(() -> new ResourceNotFoundException("User " + otherUserId + " is not hidden or blocked"));
+        userBlockDao.delete(existing);
+        exclusionIndex.refreshPair(userId, otherUserId, userBlockDao.findBetween(userId, otherUserId));
+        matchMaintenanceService.onExclusionChanged(userId, otherUserId, true);
+    }
+
+    public List<UserBlock> getBlocks(Long userId) {
+        return userBlockDao.findByUserIdOrderByIdDesc(userId);
+    }
+
+    // Create the row, or switch an existing hide to a block and back
+    private UserBlock save(Long userId, Long otherUserId, String type) {
+        if (userId.equals(otherUserId)) {
+            throw new ApiException("You cannot hide or block yourself");
+        }
+        if (!userDao.existsById(otherUserId)) {
+            throw new ResourceNotFoundException("User not found with ID: " + otherUserId);
+        }
+
+        UserBlock row = userBlockDao.findByUserIdAndBlockedUserId(userId, otherUserId)
+                .orElseGet(() -> new UserBlock(userId, otherUserId, type));
+        boolean downgraded = UserBlock.TYPE_BLOCK.equals(row.getType()) && UserBlock.TYPE_HIDE.equals(type);
+        row.setType(type);
+        UserBlock saved = userBlockDao.save(row);
+
+        exclusionIndex.refreshPair(userId, otherUserId, userBlockDao.findBetween(userId, otherUserId));
+        matchMaintenanceService.onExclusionChanged(userId, otherUserId, downgraded);
+        return saved;
+    }
+}
@@ -21,12 +21,18 @@ public class UserService {
     @Autowired
     private PreferencesDao preferencesDao;
 
+    @Autowired
+    private PreferenceService preferenceService;
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private MatchMaintenanceService matchMaintenanceService;
+
     // Add new user
     public ResponseEntity<?> addUser(User user) {
         if (userDao.findByEmail(user.getEmail()).isPresent()) {
@@ -45,33 +51,11 @@ public class UserService {
     // Set default preferences for new users
     private void createDefaultPreferences(User user) {
         try {
-            Preferences defaultPreferences = new Preferences();
-            
-            // Use user's own info as defaults
-            defaultPreferences.setAge(user.getAge() != null ? user.getAge() : 25);
-            defaultPreferences.setLocation(user.getLocation() != null ? user.getLocation() : "Any");
-            defaultPreferences.setReligion(user.getReligion() != null ? user.getReligion() : "Any");
-            defaultPreferences.setCaste(user.getCaste() != null ? user.getCaste() : "Any");
-            defaultPreferences.setEducation(user.getEducation() != null ? user.getEducation() : "Any");
-            defaultPreferences.setProfession(user.getProfession() != null ? user.getProfession() : "Any");
-            
-            // Look for opposite gender
-            if (user.getGender() != null) {
-                if (user.getGender() == User.Gender.MALE) {
-                    defaultPreferences.setGender("FEMALE");
-                } else if (user.getGender() == User.Gender.FEMALE) {
-                    defaultPreferences.setGender("MALE");
-                } else {
-                    defaultPreferences.setGender("ANY");
-                }
-            } else {
-                defaultPreferences.setGender("ANY");
-            }
-            
-            defaultPreferences.setUser(user);
+            Preferences defaultPreferences = preferenceService.buildDefaultPreferences(user);
             
             // Save preferences
             Preferences savedPreferences = preferencesDao.save(defaultPreferences);
+            matchMaintenanceService.onPreferencesChanged(savedPreferences);
             
         } catch (Exception e) {
             System.err.println("Error creating default preferences for user " + user.getId() + ": " + e.getMessage());
@@ -126,6 +110,9 @@ public class UserService {
 
             User savedUser = userDao.save(existingUser);
             
+            // Keep the match structures in line with the edited profile
+            matchMaintenanceService.onProfileChanged(savedUser);
+            
             // Make sure user has preferences
             ensureUserHasPreferences(savedUser);
             
@@ -152,6 +139,23 @@ public class UserService {
         }
     }
     
+    // Persist default preferences for every user that still has none, so the
+    // match read path never has to. Returns how many users were initialized.
+    public int initializeMissingPreferences() {
+        int created = 0;
+        for (User user : userDao.findUsersWithoutPreferences()) {
+            try {
+                Preferences saved = preferencesDao.save(preferenceService.buildDefaultPreferences(user));
+                matchMaintenanceService.onPreferencesChanged(saved);
+                created++;
+            } catch (Exception e) {
+                // Another request created them first; the unique key keeps exactly one row
+                System.err.println("Skipping preferences for user " + user.getId() + ": " + e.getMessage());
+            }
+        }
+        return created;
+    }
+    
     public User getUserByEmail(String email) {
         Optional<User> userOpt = userDao.findByEmail(email);
         if (userOpt.isPresent()) {
@@ -0,0 +1,100 @@
+package com.matrimony.Service;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for a free-text profile column. Each distinct normalized
+ * value gets a small int code; code 0 is reserved for "no value".
+ * Not thread-safe: ColumnarProfileStore guards it with its own lock.
+ */
+public class ValueDictionary {
+
+    public static final int NULL_CODE = 0;
+
+    // Returned for values that no profile has, so they never equal a stored code
+    public static final int NO_MATCH = -2;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    // Normalized and first-seen display value by code
+    private final List<String> values = new ArrayList<>();
+    private final List<String> displayValues = new ArrayList<>();
+
+    public ValueDictionary() {
+        values.add(null);
+        displayValues.add(null);
+    }
+
+    // Code for the value, assigning a new one the first time it is seen
+    public int encode(String raw) {
+        String value = MatchIndex.normalize(raw);
+        if (value == null) {
+            return NULL_CODE;
+        }
+
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+            displayValues.add(raw.trim());
+        }
+        return code;
+    }
+
+    // Code for an already normalized value without assigning one
+    public int lookup(String normalizedValue) {
+        if (normalizedValue == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(normalizedValue);
+        return code != null ? code : NO_MATCH;
+    }
+
+    public String decode(int code) {
+        return values.get(code);
+    }
+
+    public String display(int code) {
+        return displayValues.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public void clear() {
+        codes.clear();
+        values.clear();
+        displayValues.clear();
+        values.add(null);
+        displayValues.add(null);
+    }
+
+    // Display values in code order; re-encoding them in that order restores the same codes
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(values.size() - 1);
+        for (int code = 1; code < values.size(); code++) {
+            byte[] bytes = displayValues.get(code).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    void readFrom(ByteBuffer in) {
+        clear();
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            encode(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.matrimony.Security;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.security.Principal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import com.matrimony.CustomExceptions.AuthenticationException;
+
+/**
+ * Frame checks on the inbound channel, for sessions that already got past CONNECT.
+ */
+class StompAuthInterceptorTest {
+
+    private static final Principal ALICE = new UsernamePasswordAuthenticationToken("alice@example.com", null, List.of());
+
+    private final StompAuthInterceptor interceptor = new StompAuthInterceptor();
+
+    @Test
+    void sendToApplicationDestinationPasses() {
+        Message<?> message = frame(StompCommand.SEND, "/app/messages.send", ALICE);
+
+        assertSame(message, interceptor.preSend(message, null));
+    }
+
+    @Test
+    void sendToAnotherUsersQueueIsRefused() {
+        Message<?> message = frame(StompCommand.SEND, "/user/bob@example.com/queue/messages", ALICE);
+
+        assertThrows(AuthenticationException.class, () -> interceptor.preSend(message, null));
+    }
+
+    @Test
+    void sendToBrokerQueueIsRefused() {
+        Message<?> message = frame(StompCommand.SEND, "/queue/unread", ALICE);
+
+        assertThrows(AuthenticationException.class, () -> interceptor.preSend(message, null));
+    }
+
+    @Test
+    void sendWithoutPrincipalIsRefused() {
+        Message<?> message = frame(StompCommand.SEND, "/app/messages.send", null);
+
+        assertThrows(AuthenticationException.class, () -> interceptor.preSend(message, null));
+    }
+
+    @Test
+    void subscribeIsLimitedToOwnQueues() {
+        Message<?> own = frame(StompCommand.SUBSCRIBE, "/user/queue/messages", ALICE);
+
+        assertSame(own, interceptor.preSend(own, null));
+        assertThrows(AuthenticationException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/queue/messages", ALICE), null));
+        assertThrows(AuthenticationException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/user/queue/messages", null), null));
+    }
+
+    private static Message<?> frame(StompCommand command, String destination, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,144 @@
+package com.matrimony.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.matrimony.Entity.Preferences;
+import com.matrimony.Entity.User;
+
+/**
+ * Keyset paging over topMatches, the ranking behind match pages before a list is
+ * materialized. Cursors go through toCursor/fromCursor as they do over HTTP.
+ */
+class ColumnarProfileStoreTest {
+
+    private ColumnarProfileStore store;
+    private MatchWeights weights;
+    private MatchCriteria criteria;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        weights = new MatchWeights();
+        ReflectionTestUtils.setField(weights, "age", 2);
+        ReflectionTestUtils.setField(weights, "gender", 5);
+        ReflectionTestUtils.setField(weights, "caste", 2);
+        ReflectionTestUtils.setField(weights, "religion", 3);
+        ReflectionTestUtils.setField(weights, "location", 2);
+        ReflectionTestUtils.setField(weights, "profession", 1);
+        ReflectionTestUtils.setField(weights, "education", 1);
+
+        // Few distinct values, so most scores are shared by many profiles
+        String[] religions = { "Hindu", "Sikh" };
+        String[] locations = { "Pune", "Mumbai", "Delhi" };
+        users = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            users.add(user(id, religions[(int) (id % 2)], locations[(int) (id % 3)]));
+        }
+        store = new ColumnarProfileStore();
+        store.rebuild(users);
+
+        Preferences preferences = new Preferences();
+        preferences.setAge(28);
+        preferences.setGender("FEMALE");
+        preferences.setReligion("Hindu");
+        preferences.setLocation("Pune");
+        preferences.setCaste("Any");
+        criteria = MatchCriteria.from(preferences);
+    }
+
+    @Test
+    void pagesCoverEveryCandidateOnceInRankingOrder() {
+        List<ScoredMatch> paged = pageAll(candidates(), 7);
+
+        List<ScoredMatch> expected = new ArrayList<>();
+        for (User user : users) {
+            expected.add(new ScoredMatch(user.getId(), criteria.score(user, weights)));
+        }
+        expected.sort(ScoredMatch.RANKING);
+
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void pagesBreakTiesByUserId() {
+        List<ScoredMatch> paged = pageAll(candidates(), 10);
+        for (int i = 1; i < paged.size(); i++) {
+            ScoredMatch previous = paged.get(i - 1);
+            ScoredMatch current = paged.get(i);
+            assertTrue(previous.score() > current.score()
+                    || (previous.score() == current.score() && previous.userId() < current.userId()));
+        }
+    }
+
+    @Test
+    void pageBoundaryHoldsWhenProfilesAreAddedBetweenRequests() {
+        RoaringBitmap candidates = candidates();
+        List<ScoredMatch> first = store.topMatches(criteria, candidates, weights, null, 150, null);
+        ScoredMatch boundary = ScoredMatch.fromCursor(first.get(first.size() - 1).toCursor());
+        List<ScoredMatch> expected = store.topMatches(criteria, candidates, weights, boundary, 20, null);
+
+        // A perfect match arrives before the next request; it ranks ahead of the boundary
+        User newcomer = user(1000, "Hindu", "Pune");
+        newcomer.setAge(28);
+        newcomer.setGender(User.Gender.FEMALE);
+        users.add(newcomer);
+        store.rebuild(users);
+        candidates.add(1000);
+        ScoredMatch newcomerMatch = new ScoredMatch(1000, criteria.score(newcomer, weights));
+        assertTrue(ScoredMatch.RANKING.compare(newcomerMatch, boundary) < 0);
+
+        List<ScoredMatch> second = store.topMatches(criteria, candidates, weights, boundary, 20, null);
+
+        assertEquals(expected, second);
+        Set<Long> seen = new HashSet<>();
+        first.forEach(match -> seen.add(match.userId()));
+        second.forEach(match -> assertTrue(seen.add(match.userId()), "repeated " + match.userId()));
+    }
+
+    private List<ScoredMatch> pageAll(RoaringBitmap candidates, int pageSize) {
+        List<ScoredMatch> all = new ArrayList<>();
+        String cursor = null;
+        while (true) {
+            ScoredMatch after = cursor == null ? null : ScoredMatch.fromCursor(cursor);
+            List<ScoredMatch> page = store.topMatches(criteria, candidates, weights, after, pageSize, null);
+            if (page.isEmpty()) {
+                return all;
+            }
+            all.addAll(page);
+            assertTrue(all.size() <= users.size(), "pages repeat matches");
+            cursor = page.get(page.size() - 1).toCursor();
+        }
+    }
+
+    private RoaringBitmap candidates() {
+        RoaringBitmap candidates = new RoaringBitmap();
+        users.forEach(user -> candidates.add(user.getId().intValue()));
+        return candidates;
+    }
+
+    private static User user(long id, String religion, String location) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(User.Role.USER);
+        user.setIsActive(true);
+        user.setProfileApproved(true);
+        user.setAge(25 + (int) (id % 8));
+        user.setGender(id % 4 == 0 ? User.Gender.MALE : User.Gender.FEMALE);
+        user.setReligion(religion);
+        user.setLocation(location);
+        user.setCaste("General");
+        user.setProfession("Engineer");
+        return user;
+    }
+}
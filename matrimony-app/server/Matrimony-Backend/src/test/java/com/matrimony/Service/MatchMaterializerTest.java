@@ -0,0 +1,166 @@
+package com.matrimony.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.matrimony.Dao.UserMatchDao;
+import com.matrimony.Entity.Preferences;
+import com.matrimony.Entity.User;
+
+/**
+ * The maxPerUser cap on materialized lists, for full rewrites and for the inbound
+ * deltas that add one profile to other users' lists.
+ */
+class MatchMaterializerTest {
+
+    private static final int MAX_PER_USER = 200;
+
+    private MatchMaterializer materializer;
+    private UserMatchDao userMatchDao;
+    private JdbcTemplate jdbcTemplate;
+    private MatchIndex matchIndex;
+    private PreferenceIndex preferenceIndex;
+    private ContactIndex contactIndex;
+    private MatchWeights weights;
+    private MatchCriteria criteria;
+
+    @BeforeEach
+    void setUp() {
+        weights = new MatchWeights();
+        ReflectionTestUtils.setField(weights, "age", 2);
+        ReflectionTestUtils.setField(weights, "gender", 5);
+        ReflectionTestUtils.setField(weights, "caste", 2);
+        ReflectionTestUtils.setField(weights, "religion", 3);
+        ReflectionTestUtils.setField(weights, "location", 2);
+        ReflectionTestUtils.setField(weights, "profession", 1);
+        ReflectionTestUtils.setField(weights, "education", 1);
+
+        Preferences preferences = new Preferences();
+        preferences.setAgeMin(25);
+        preferences.setAgeMax(30);
+        preferences.setGender("FEMALE");
+        preferences.setReligion("Hindu");
+        preferences.setLocation("Pune");
+        preferences.setCaste("Any");
+        criteria = MatchCriteria.from(preferences);
+
+        userMatchDao = mock(UserMatchDao.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        matchIndex = mock(MatchIndex.class);
+        when(matchIndex.isReady()).thenReturn(true);
+        preferenceIndex = mock(PreferenceIndex.class);
+        contactIndex = mock(ContactIndex.class);
+        when(contactIndex.getContacted(anyLong())).thenAnswer(call -> new RoaringBitmap());
+        ExclusionIndex exclusionIndex = mock(ExclusionIndex.class);
+        when(exclusionIndex.getExcluded(anyLong())).thenAnswer(call -> new RoaringBitmap());
+
+        materializer = new MatchMaterializer();
+        ReflectionTestUtils.setField(materializer, "userMatchDao", userMatchDao);
+        ReflectionTestUtils.setField(materializer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(materializer, "matchIndex", matchIndex);
+        ReflectionTestUtils.setField(materializer, "preferenceIndex", preferenceIndex);
+        ReflectionTestUtils.setField(materializer, "contactIndex", contactIndex);
+        ReflectionTestUtils.setField(materializer, "exclusionIndex", exclusionIndex);
+        ReflectionTestUtils.setField(materializer, "matchWeights", weights);
+        ReflectionTestUtils.setField(materializer, "maxPerUser", MAX_PER_USER);
+    }
+
+    @Test
+    void outboundRewriteKeepsTheBestMaxPerUserRows() {
+        List<User> users = new ArrayList<>();
+        RoaringBitmap candidates = new RoaringBitmap();
+        for (long id = 2; id <= 350; id++) {
+            users.add(profile(id, 22 + (int) (id % 12), id % 3 == 0 ? "Hindu" : "Sikh"));
+            candidates.add((int) id);
+        }
+        ColumnarProfileStore store = new ColumnarProfileStore();
+        store.rebuild(users);
+        ReflectionTestUtils.setField(materializer, "profileStore", store);
+        when(matchIndex.findCandidates(criteria, 1L)).thenReturn(candidates.clone());
+
+        materializer.refreshOutbound(1L, criteria);
+
+        List<Object[]> rows = upsertedRows();
+        List<ScoredMatch> best = store.topMatches(criteria, candidates, weights, null, MAX_PER_USER, null);
+        assertEquals(MAX_PER_USER, rows.size());
+        assertEquals(best, rows.stream()
+                .map(row -> new ScoredMatch((Long) row[1], (Integer) row[2]))
+                .collect(Collectors.toList()));
+        verify(userMatchDao).deleteByUserId(1L);
+    }
+
+    @Test
+    void inboundProfileJoinsListsItRanksInAndTrimsFullOnes() {
+        User profile = profile(99L, 27, "Hindu");
+        int score = criteria.score(profile, weights);
+
+        // 10 is full and ranks the profile below its lowest row, 11 is full with a tie
+        // at its lowest row, 12 has room, 13 is not materialized, 14 contacted them
+        materializer.markMaterialized(List.of(10L, 11L, 12L, 14L));
+        when(preferenceIndex.findViewersAccepting(profile)).thenReturn(RoaringBitmap.bitmapOf(10, 11, 12, 13, 14));
+        when(preferenceIndex.getCriteria(anyLong())).thenReturn(criteria);
+        when(contactIndex.hasContacted(14L, 99L)).thenReturn(true);
+        when(userMatchDao.findListStats(anyList())).thenReturn(List.of(
+                new Object[] { 10L, (long) MAX_PER_USER, score + 1 },
+                new Object[] { 11L, (long) MAX_PER_USER, score },
+                new Object[] { 12L, 50L, score + 5 }));
+
+        materializer.refreshInbound(profile);
+
+        verify(userMatchDao).deleteByCandidateId(99L);
+        assertEquals(List.of(11L, 12L), upsertedRows().stream().map(row -> (Long) row[0]).sorted().collect(Collectors.toList()));
+        verify(userMatchDao).trimToSize(11L, MAX_PER_USER);
+        verify(userMatchDao, never()).trimToSize(eq(10L), anyInt());
+        verify(userMatchDao, never()).trimToSize(eq(12L), anyInt());
+    }
+
+    @Test
+    void unmatchableProfileIsOnlyRemoved() {
+        User profile = profile(99L, 27, "Hindu");
+        profile.setProfileApproved(false);
+
+        materializer.refreshInbound(profile);
+
+        verify(userMatchDao).deleteByCandidateId(99L);
+        verify(jdbcTemplate, never()).batchUpdate(any(String.class), anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> upsertedRows() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(MatchMaterializer.UPSERT_SQL), rows.capture());
+        return rows.getValue();
+    }
+
+    private static User profile(long id, int age, String religion) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(User.Role.USER);
+        user.setIsActive(true);
+        user.setProfileApproved(true);
+        user.setAge(age);
+        user.setGender(User.Gender.FEMALE);
+        user.setReligion(religion);
+        user.setLocation(id % 2 == 0 ? "Pune" : "Mumbai");
+        return user;
+    }
+}
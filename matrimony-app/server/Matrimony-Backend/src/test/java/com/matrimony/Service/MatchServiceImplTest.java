@@ -0,0 +1,184 @@
+package com.matrimony.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.matrimony.Dao.PreferencesDao;
+import com.matrimony.Dao.UserDao;
+import com.matrimony.Dto.MatchPageDto;
+import com.matrimony.Entity.Preferences;
+import com.matrimony.Entity.User;
+
+/**
+ * Cursor paging across the end of a materialized match list, where the stored rows
+ * hand over to live scoring from the profile columns.
+ */
+class MatchServiceImplTest {
+
+    private static final long VIEWER = 1L;
+
+    private MatchServiceImpl service;
+    private MatchMaterializer materializer;
+    private ColumnarProfileStore store;
+    private MatchWeights weights;
+    private MatchCriteria criteria;
+    private RoaringBitmap candidates;
+    private List<ScoredMatch> storedList;
+
+    @BeforeEach
+    void setUp() {
+        weights = new MatchWeights();
+        ReflectionTestUtils.setField(weights, "age", 2);
+        ReflectionTestUtils.setField(weights, "gender", 5);
+        ReflectionTestUtils.setField(weights, "caste", 2);
+        ReflectionTestUtils.setField(weights, "religion", 3);
+        ReflectionTestUtils.setField(weights, "location", 2);
+        ReflectionTestUtils.setField(weights, "profession", 1);
+        ReflectionTestUtils.setField(weights, "education", 1);
+
+        String[] religions = { "Hindu", "Sikh", "Jain" };
+        String[] locations = { "Pune", "Mumbai" };
+        List<User> users = new ArrayList<>();
+        candidates = new RoaringBitmap();
+        for (long id = 2; id <= 61; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setRole(User.Role.USER);
+            user.setIsActive(true);
+            user.setProfileApproved(true);
+            user.setAge(24 + (int) (id % 10));
+            user.setGender(User.Gender.FEMALE);
+            user.setReligion(religions[(int) (id % 3)]);
+            user.setLocation(locations[(int) (id % 2)]);
+            users.add(user);
+            candidates.add((int) id);
+        }
+        store = new ColumnarProfileStore();
+        store.rebuild(users);
+        Map<Long, User> usersById = users.stream().collect(Collectors.toMap(User::getId, Function.identity()));
+
+        Preferences preferences = new Preferences();
+        preferences.setAgeMin(26);
+        preferences.setAgeMax(30);
+        preferences.setGender("FEMALE");
+        preferences.setReligion("Hindu");
+        preferences.setLocation("Pune");
+        preferences.setCaste("Any");
+        criteria = MatchCriteria.from(preferences);
+
+        User viewer = new User();
+        viewer.setId(VIEWER);
+        UserDao userDao = mock(UserDao.class);
+        when(userDao.findById(VIEWER)).thenReturn(Optional.of(viewer));
+        when(userDao.findAllById(any())).thenAnswer(call -> {
+            List<User> found = new ArrayList<>();
+            for (Long id : call.<Iterable<Long>>getArgument(0)) {
+                found.add(usersById.get(id));
+            }
+            return found;
+        });
+        PreferencesDao preferencesDao = mock(PreferencesDao.class);
+        when(preferencesDao.findByUserId(VIEWER)).thenReturn(preferences);
+
+        MatchIndex matchIndex = mock(MatchIndex.class);
+        when(matchIndex.isReady()).thenReturn(true);
+        when(matchIndex.findCandidates(any(), eq(VIEWER))).thenAnswer(call -> candidates.clone());
+        ContactIndex contactIndex = mock(ContactIndex.class);
+        when(contactIndex.getContacted(anyLong())).thenAnswer(call -> new RoaringBitmap());
+        ExclusionIndex exclusionIndex = mock(ExclusionIndex.class);
+        when(exclusionIndex.getExcluded(anyLong())).thenAnswer(call -> new RoaringBitmap());
+
+        // Keyset reads over an in-memory stand-in for the user_matches rows
+        storedList = new ArrayList<>();
+        materializer = mock(MatchMaterializer.class);
+        when(materializer.isMaterialized(VIEWER)).thenReturn(true);
+        when(materializer.readList(VIEWER)).thenAnswer(call -> List.copyOf(storedList));
+        when(materializer.readPage(eq(VIEWER), any(), anyInt())).thenAnswer(call -> {
+            ScoredMatch after = call.getArgument(1);
+            int size = call.getArgument(2);
+            return storedList.stream()
+                    .filter(row -> after == null || ScoredMatch.RANKING.compare(row, after) > 0)
+                    .limit(size)
+                    .collect(Collectors.toList());
+        });
+
+        service = new MatchServiceImpl();
+        ReflectionTestUtils.setField(service, "userDao", userDao);
+        ReflectionTestUtils.setField(service, "preferencesDao", preferencesDao);
+        ReflectionTestUtils.setField(service, "matchIndex", matchIndex);
+        ReflectionTestUtils.setField(service, "contactIndex", contactIndex);
+        ReflectionTestUtils.setField(service, "exclusionIndex", exclusionIndex);
+        ReflectionTestUtils.setField(service, "matchMaterializer", materializer);
+        ReflectionTestUtils.setField(service, "profileStore", store);
+        ReflectionTestUtils.setField(service, "geoIndex", new GeoIndex());
+        ReflectionTestUtils.setField(service, "matchWeights", weights);
+        ReflectionTestUtils.setField(service, "maxPageSize", 50);
+    }
+
+    @Test
+    void pagingCrossesFromStoredRowsToLiveScoring() {
+        List<ScoredMatch> live = store.topMatches(criteria, candidates, weights, null, 100, null);
+        storedList.addAll(live.subList(0, 10));
+
+        assertEquals(ids(live), pageAll(7));
+    }
+
+    @Test
+    void storedCandidateWithStaleScoreIsNotListedAgain() {
+        List<ScoredMatch> live = store.topMatches(criteria, candidates, weights, null, 100, null);
+        // The stored score of a weak candidate is out of date and ranks them first
+        ScoredMatch stale = live.get(live.size() - 1);
+        storedList.add(new ScoredMatch(stale.userId(), stale.score() + 50));
+        storedList.addAll(live.subList(0, 9));
+
+        List<Long> expected = new ArrayList<>(ids(storedList));
+        live.stream().skip(9).filter(match -> match.userId() != stale.userId()).forEach(match -> expected.add(match.userId()));
+        assertEquals(expected, pageAll(7));
+    }
+
+    @Test
+    void emptyMaterializedListPagesFromLiveScoring() {
+        List<ScoredMatch> live = store.topMatches(criteria, candidates, weights, null, 100, null);
+
+        assertEquals(ids(live), pageAll(9));
+    }
+
+    private List<Long> pageAll(int pageSize) {
+        List<Long> seen = new ArrayList<>();
+        Set<Long> unique = new HashSet<>();
+        String cursor = null;
+        do {
+            MatchPageDto page = service.getMatches(VIEWER, cursor, pageSize);
+            page.getMatches().forEach(match -> {
+                seen.add(match.getUser().getId());
+                unique.add(match.getUser().getId());
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null && seen.size() <= candidates.getCardinality());
+        assertEquals(unique.size(), seen.size(), "a match was listed twice");
+        return seen;
+    }
+
+    private static List<Long> ids(List<ScoredMatch> matches) {
+        return matches.stream().map(ScoredMatch::userId).collect(Collectors.toList());
+    }
+}
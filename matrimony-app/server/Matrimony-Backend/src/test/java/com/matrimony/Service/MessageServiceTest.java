@@ -0,0 +1,185 @@
+package com.matrimony.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.matrimony.Dao.ConversationDao;
+import com.matrimony.Dao.MessageDao;
+import com.matrimony.Dao.UserDao;
+import com.matrimony.Entity.Message;
+import com.matrimony.Entity.User;
+
+/**
+ * The denormalized unread counters must always equal the number of unread messages.
+ * The DAOs are in-memory stand-ins that apply the same changes as their queries:
+ * markRead's UPDATE, the conversation upsert, and the clamped decrement.
+ */
+class MessageServiceTest {
+
+    private static final long ANJALI = 1L;
+    private static final long RAVI = 2L;
+    private static final long MEERA = 3L;
+
+    private MessageService service;
+
+    private final List<Message> messages = new ArrayList<>();
+    private final Map<List<Long>, int[]> conversations = new HashMap<>();
+    private final Map<String, Long> publishedUnread = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        Map<Long, User> users = new HashMap<>();
+        for (long id = 1; id <= 3; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setEmail("user" + id + "@example.com");
+            users.put(id, user);
+        }
+        UserDao userDao = mock(UserDao.class);
+        when(userDao.findById(anyLong())).thenAnswer(call -> Optional.ofNullable(users.get(call.<Long>getArgument(0))));
+
+        MessageDao messageDao = mock(MessageDao.class);
+        when(messageDao.save(any(Message.class))).thenAnswer(call -> {
+            Message message = call.getArgument(0);
+            message.setId((long) messages.size() + 1);
+            messages.add(message);
+            return message;
+        });
+        when(messageDao.markRead(anyLong(), anyLong(), anyLong())).thenAnswer(call -> {
+            long receiverId = call.getArgument(0);
+            long senderId = call.getArgument(1);
+            long upToId = call.getArgument(2);
+            int marked = 0;
+            for (Message message : messages) {
+                if (message.getReceiver().getId() == receiverId && message.getSender().getId() == senderId
+                        && !message.isRead() && message.getId() <= upToId) {
+                    message.setRead(true);
+                    marked++;
+                }
+            }
+            return marked;
+        });
+
+        ConversationDao conversationDao = mock(ConversationDao.class);
+        when(conversationDao.recordMessage(anyLong(), anyLong(), anyLong(), any(), anyInt(), anyInt())).thenAnswer(call -> {
+            int[] unread = counters(call.getArgument(0), call.getArgument(1));
+            unread[0] += call.<Integer>getArgument(4);
+            unread[1] += call.<Integer>getArgument(5);
+            return 1;
+        });
+        when(conversationDao.markReadByLow(anyLong(), anyLong(), anyInt())).thenAnswer(call -> {
+            int[] unread = counters(call.getArgument(0), call.getArgument(1));
+            unread[0] = Math.max(unread[0] - call.<Integer>getArgument(2), 0);
+            return 1;
+        });
+        when(conversationDao.markReadByHigh(anyLong(), anyLong(), anyInt())).thenAnswer(call -> {
+            int[] unread = counters(call.getArgument(0), call.getArgument(1));
+            unread[1] = Math.max(unread[1] - call.<Integer>getArgument(2), 0);
+            return 1;
+        });
+        when(conversationDao.countUnread(anyLong())).thenAnswer(call -> counterTotal(call.getArgument(0)));
+
+        MessagePublisher messagePublisher = mock(MessagePublisher.class);
+        doAnswer(call -> publishedUnread.put(call.getArgument(0), call.getArgument(1)))
+                .when(messagePublisher).publishUnreadCount(anyString(), anyLong());
+
+        service = new MessageService();
+        ReflectionTestUtils.setField(service, "userDao", userDao);
+        ReflectionTestUtils.setField(service, "messageDao", messageDao);
+        ReflectionTestUtils.setField(service, "conversationDao", conversationDao);
+        ReflectionTestUtils.setField(service, "messagePublisher", messagePublisher);
+    }
+
+    @Test
+    void sendsRaiseTheReceiversCounterOnEitherSideOfThePair() {
+        send(ANJALI, RAVI, 3);
+        send(RAVI, ANJALI, 2);
+        send(MEERA, RAVI, 1);
+
+        assertCountersMatchMessages();
+        assertEquals(4, service.getUnreadMessageCount(RAVI));
+        assertEquals(2, service.getUnreadMessageCount(ANJALI));
+        assertEquals(0, service.getUnreadMessageCount(MEERA));
+        assertEquals(4L, publishedUnread.get("user2@example.com"));
+    }
+
+    @Test
+    void partialMarkOnlyTakesOffMessagesUpToTheGivenId() {
+        send(ANJALI, RAVI, 2);
+        send(MEERA, RAVI, 1);
+        long upToId = messages.get(messages.size() - 1).getId();
+        send(ANJALI, RAVI, 2);
+
+        // Ravi is the high side of the pair with Anjali and the low side with Meera
+        assertEquals(2, service.markMessagesAsRead(RAVI, ANJALI, upToId));
+        assertCountersMatchMessages();
+        assertEquals(3, service.getUnreadMessageCount(RAVI));
+
+        assertEquals(1, service.markMessagesAsRead(RAVI, MEERA, null));
+        assertCountersMatchMessages();
+        assertEquals(2L, publishedUnread.get("user2@example.com"));
+    }
+
+    @Test
+    void repeatedMarkChangesNothing() {
+        send(RAVI, ANJALI, 3);
+        long upToId = messages.get(1).getId();
+
+        assertEquals(2, service.markMessagesAsRead(ANJALI, RAVI, upToId));
+        assertEquals(0, service.markMessagesAsRead(ANJALI, RAVI, upToId));
+        assertCountersMatchMessages();
+        assertEquals(1, service.getUnreadMessageCount(ANJALI));
+
+        assertEquals(1, service.markMessagesAsRead(ANJALI, RAVI, null));
+        assertEquals(0, service.markMessagesAsRead(ANJALI, RAVI, null));
+        assertCountersMatchMessages();
+        assertEquals(0, service.getUnreadMessageCount(ANJALI));
+    }
+
+    private void send(long senderId, long receiverId, int count) {
+        for (int i = 0; i < count; i++) {
+            service.sendMessage(senderId, receiverId, "message " + messages.size());
+        }
+    }
+
+    private void assertCountersMatchMessages() {
+        for (long userId = 1; userId <= 3; userId++) {
+            long id = userId;
+            long unread = messages.stream().filter(m -> m.getReceiver().getId() == id && !m.isRead()).count();
+            assertEquals(unread, counterTotal(userId), "unread counter of user " + userId);
+        }
+    }
+
+    private int[] counters(long low, long high) {
+        return conversations.computeIfAbsent(List.of(low, high), pair -> new int[2]);
+    }
+
+    // countUnread: the user's side of every conversation they are part of
+    private long counterTotal(long userId) {
+        long total = 0;
+        for (Map.Entry<List<Long>, int[]> entry : conversations.entrySet()) {
+            if (entry.getKey().get(0) == userId) {
+                total += entry.getValue()[0];
+            } else if (entry.getKey().get(1) == userId) {
+                total += entry.getValue()[1];
+            }
+        }
+        return total;
+    }
+}
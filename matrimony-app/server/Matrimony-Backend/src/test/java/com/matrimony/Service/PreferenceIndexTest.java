@@ -0,0 +1,116 @@
+package com.matrimony.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.matrimony.Dao.PreferencesDao;
+import com.matrimony.Dao.UserDao;
+import com.matrimony.Entity.Preferences;
+import com.matrimony.Entity.User;
+
+/**
+ * Users without a stored Preferences row take part in reverse lookups through the
+ * defaults derived from their profile, as they do on the match read path.
+ */
+class PreferenceIndexTest {
+
+    private PreferenceIndex index;
+    private User stored;
+    private User withoutRow;
+    private User profile;
+
+    @BeforeEach
+    void setUp() {
+        stored = user(1L, User.Gender.MALE, 32, "Hindu", "Pune");
+        withoutRow = user(2L, User.Gender.MALE, 30, "Hindu", "Pune");
+        profile = user(3L, User.Gender.FEMALE, 30, "Hindu", "Pune");
+
+        Preferences preferences = new Preferences();
+        preferences.setUser(stored);
+        preferences.setAgeMin(25);
+        preferences.setAgeMax(35);
+        preferences.setGender("FEMALE");
+        preferences.setReligion("Hindu");
+        preferences.setLocation("Pune");
+        preferences.setCaste("General");
+        preferences.setProfession("Engineer");
+
+        PreferencesDao preferencesDao = mock(PreferencesDao.class);
+        UserDao userDao = mock(UserDao.class);
+        when(preferencesDao.findAllWithUser()).thenReturn(List.of(preferences));
+        when(userDao.findUsersWithoutPreferences()).thenReturn(List.of(withoutRow, profile));
+
+        index = new PreferenceIndex();
+        ReflectionTestUtils.setField(index, "preferencesDao", preferencesDao);
+        ReflectionTestUtils.setField(index, "userDao", userDao);
+        ReflectionTestUtils.setField(index, "geoIndex", new GeoIndex());
+        index.rebuild();
+    }
+
+    @Test
+    void usersWithoutStoredPreferencesAreIndexedOnTheirDefaults() {
+        MatchCriteria defaults = index.getCriteria(withoutRow.getId());
+
+        assertNotNull(defaults);
+        assertEquals(MatchCriteria.from(PreferenceServiceImpl.defaultsFor(withoutRow)).getReligions(), defaults.getReligions());
+        assertEquals(User.Gender.FEMALE, defaults.getGender());
+        assertTrue(defaults.acceptsAge(30));
+        assertFalse(defaults.acceptsAge(31));
+    }
+
+    @Test
+    void profileIsFoundByStoredAndDerivedViewers() {
+        Set<Integer> viewers = Set.of(index.findViewersAccepting(profile).stream().boxed().toArray(Integer[]::new));
+
+        assertTrue(viewers.contains(MatchIndex.toKey(stored.getId())));
+        assertTrue(viewers.contains(MatchIndex.toKey(withoutRow.getId())));
+        assertFalse(viewers.contains(MatchIndex.toKey(profile.getId())));
+    }
+
+    @Test
+    void profileChangesRederiveDefaultsOnly() {
+        withoutRow.setAge(40);
+        MatchCriteria rederived = index.reindexDefaults(withoutRow);
+
+        assertNotNull(rederived);
+        assertTrue(index.getCriteria(withoutRow.getId()).acceptsAge(40));
+        assertFalse(index.getCriteria(withoutRow.getId()).acceptsAge(30));
+        assertNull(index.reindexDefaults(stored));
+    }
+
+    @Test
+    void savingPreferencesReplacesDerivedDefaults() {
+        Preferences saved = PreferenceServiceImpl.defaultsFor(withoutRow);
+        saved.setAgeMin(20);
+        saved.setAgeMax(50);
+        index.reindex(withoutRow.getId(), MatchCriteria.from(saved));
+
+        withoutRow.setAge(45);
+        assertNull(index.reindexDefaults(withoutRow));
+        assertTrue(index.getCriteria(withoutRow.getId()).acceptsAge(22));
+    }
+
+    private static User user(long id, User.Gender gender, int age, String religion, String location) {
+        User user = new User();
+        user.setId(id);
+        user.setGender(gender);
+        user.setAge(age);
+        user.setReligion(religion);
+        user.setLocation(location);
+        user.setCaste("General");
+        user.setProfession("Engineer");
+        return user;
+    }
+}
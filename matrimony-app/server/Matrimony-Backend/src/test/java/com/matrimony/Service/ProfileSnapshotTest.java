@@ -0,0 +1,158 @@
+package com.matrimony.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.matrimony.Entity.Preferences;
+import com.matrimony.Entity.User;
+
+/**
+ * Round trip of the on-disk profile store: a loaded snapshot must rank exactly like
+ * the store it was written from, and damaged or foreign files must be refused.
+ */
+class ProfileSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private ProfileSnapshot snapshot;
+    private MatchWeights weights;
+    private ColumnarProfileStore written;
+    private RoaringBitmap candidates;
+    private ProfileSnapshot.Watermark watermark;
+
+    @BeforeEach
+    void setUp() {
+        file = dir.resolve("profiles.bin");
+        snapshot = new ProfileSnapshot();
+        ReflectionTestUtils.setField(snapshot, "enabled", true);
+        ReflectionTestUtils.setField(snapshot, "path", file.toString());
+
+        weights = new MatchWeights();
+        ReflectionTestUtils.setField(weights, "age", 2);
+        ReflectionTestUtils.setField(weights, "gender", 5);
+        ReflectionTestUtils.setField(weights, "caste", 2);
+        ReflectionTestUtils.setField(weights, "religion", 3);
+        ReflectionTestUtils.setField(weights, "location", 2);
+        ReflectionTestUtils.setField(weights, "profession", 1);
+        ReflectionTestUtils.setField(weights, "education", 1);
+
+        String[] religions = { "Hindu", "Sikh", "Jain" };
+        String[] locations = { "Pune", "Mumbai", "Delhi", "Goa" };
+        List<User> users = new ArrayList<>();
+        candidates = new RoaringBitmap();
+        for (long id = 1; id <= 500; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setRole(User.Role.USER);
+            user.setIsActive(true);
+            user.setProfileApproved(true);
+            user.setAge(id % 11 == 0 ? null : 22 + (int) (id % 12));
+            user.setGender(id % 3 == 0 ? User.Gender.MALE : User.Gender.FEMALE);
+            user.setReligion(religions[(int) (id % 3)]);
+            user.setLocation(locations[(int) (id % 4)]);
+            user.setCaste(id % 2 == 0 ? "General" : null);
+            user.setProfession(id % 5 == 0 ? "Doctor" : "Engineer");
+            users.add(user);
+            candidates.add((int) id);
+        }
+        written = new ColumnarProfileStore();
+        written.rebuild(users);
+        watermark = new ProfileSnapshot.Watermark(LocalDateTime.of(2026, 3, 1, 12, 30, 15), 500);
+        snapshot.write(written, watermark);
+    }
+
+    @Test
+    void loadedStoreRanksLikeTheWrittenOne() {
+        ColumnarProfileStore loaded = new ColumnarProfileStore();
+
+        assertEquals(watermark, snapshot.load(loaded));
+        for (MatchCriteria criteria : List.of(criteria("Hindu", "Pune", "General"), criteria("Sikh", "Goa", "Any"),
+                criteria("Jain", "Nowhere", "Any"))) {
+            ScoredMatch after = null;
+            for (int page = 0; page < 4; page++) {
+                List<ScoredMatch> expected = written.topMatches(criteria, candidates, weights, after, 60, null);
+                assertEquals(expected, loaded.topMatches(criteria, candidates, weights, after, 60, null));
+                after = expected.get(expected.size() - 1);
+            }
+        }
+    }
+
+    @Test
+    void loadedDictionariesKeepAssigningNewCodes() {
+        ColumnarProfileStore loaded = new ColumnarProfileStore();
+        assertNotNull(snapshot.load(loaded));
+
+        // A value first seen after the load must not collide with a loaded code
+        User newcomer = new User();
+        newcomer.setId(501L);
+        newcomer.setRole(User.Role.USER);
+        newcomer.setIsActive(true);
+        newcomer.setProfileApproved(true);
+        newcomer.setAge(28);
+        newcomer.setGender(User.Gender.FEMALE);
+        newcomer.setReligion("Parsi");
+        newcomer.setLocation("Pune");
+        loaded.reindex(newcomer);
+
+        RoaringBitmap newcomerOnly = RoaringBitmap.bitmapOf(501);
+        int asParsi = loaded.topMatches(criteria("Parsi", "Any", "Any"), newcomerOnly, weights, null, 1, null).get(0).score();
+        int asHindu = loaded.topMatches(criteria("Hindu", "Any", "Any"), newcomerOnly, weights, null, 1, null).get(0).score();
+        assertEquals(weights.getReligion(), asParsi - asHindu);
+    }
+
+    @Test
+    void corruptedPayloadIsRejected() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(file, bytes);
+
+        assertNull(snapshot.load(new ColumnarProfileStore()));
+    }
+
+    @Test
+    void otherFormatVersionIsRejected() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES, 2);
+        Files.write(file, bytes);
+
+        assertNull(snapshot.load(new ColumnarProfileStore()));
+    }
+
+    @Test
+    void foreignOrMissingFileIsRejected() throws IOException {
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        assertNull(snapshot.load(new ColumnarProfileStore()));
+
+        Files.delete(file);
+        assertNull(snapshot.load(new ColumnarProfileStore()));
+    }
+
+    private static MatchCriteria criteria(String religion, String location, String caste) {
+        Preferences preferences = new Preferences();
+        preferences.setAgeMin(24);
+        preferences.setAgeMax(30);
+        preferences.setGender("FEMALE");
+        preferences.setReligion(religion);
+        preferences.setLocation(location);
+        preferences.setCaste(caste);
+        preferences.setProfession("Doctor");
+        return MatchCriteria.from(preferences);
+    }
+}
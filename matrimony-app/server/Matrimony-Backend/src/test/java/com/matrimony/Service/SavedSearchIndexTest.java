@@ -0,0 +1,251 @@
+package com.matrimony.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.matrimony.Entity.SavedSearch;
+import com.matrimony.Entity.User;
+
+/**
+ * The saved search percolator, built from in-memory searches through index().
+ */
+class SavedSearchIndexTest {
+
+    private static final long OWNER = 1L;
+    private static final long PROFILE = 99L;
+
+    private SavedSearchIndex index;
+    private long nextSearchId;
+
+    @BeforeEach
+    void setUp() {
+        index = new SavedSearchIndex();
+        nextSearchId = 1;
+    }
+
+    @Test
+    void searchMustMatchEveryFilledInField() {
+        long both = add(search().religion("Hindu").location("Pune"));
+        long religionOnly = add(search().religion("Hindu"));
+        long otherLocation = add(search().religion("Hindu").location("Mumbai"));
+        long otherReligion = add(search().religion("Sikh").location("Pune"));
+
+        assertEquals(Set.of(both, religionOnly), satisfiedBy(profile().religion("Hindu").location("Pune")));
+        assertEquals(Set.of(religionOnly, otherLocation), satisfiedBy(profile().religion("Hindu").location("Mumbai")));
+        assertEquals(Set.of(), satisfiedBy(profile().religion("Christian").location("Goa")));
+        assertEquals(Set.of(otherReligion), satisfiedBy(profile().religion("Sikh").location("Pune")));
+    }
+
+    @Test
+    void profileWithoutAValueIsRejectedBySearchesConstrainingIt() {
+        long casteSearch = add(search().caste("General"));
+        long open = add(search());
+
+        assertEquals(Set.of(open), satisfiedBy(profile()));
+        assertEquals(Set.of(casteSearch, open), satisfiedBy(profile().caste("General")));
+    }
+
+    @Test
+    void valuesCompareTrimmedAndCaseInsensitively() {
+        long search = add(search().profession(" Software Engineer ").education("B.Tech"));
+
+        assertEquals(Set.of(search), satisfiedBy(profile().profession("software engineer").education("b.tech ")));
+    }
+
+    @Test
+    void ageRangeIsInclusive() {
+        long range = add(search().ages(25, 30));
+
+        assertEquals(Set.of(), satisfiedBy(profile().age(24)));
+        assertEquals(Set.of(range), satisfiedBy(profile().age(25)));
+        assertEquals(Set.of(range), satisfiedBy(profile().age(30)));
+        assertEquals(Set.of(), satisfiedBy(profile().age(31)));
+    }
+
+    @Test
+    void openEndedAgeBounds() {
+        long atLeast = add(search().ages(40, null));
+        long atMost = add(search().ages(null, 22));
+
+        assertEquals(Set.of(atMost), satisfiedBy(profile().age(18)));
+        assertEquals(Set.of(), satisfiedBy(profile().age(30)));
+        assertEquals(Set.of(atLeast), satisfiedBy(profile().age(75)));
+    }
+
+    @Test
+    void agesOutsideTheIndexedSpan() {
+        long atLeast = add(search().ages(25, null));
+        long bounded = add(search().ages(25, 40));
+        long aboveSpan = add(search().ages(125, 200));
+        long belowSpan = add(search().ages(-10, -1));
+
+        assertEquals(Set.of(atLeast, aboveSpan), satisfiedBy(profile().age(130)));
+        assertEquals(Set.of(belowSpan), satisfiedBy(profile().age(-5)));
+        assertEquals(Set.of(atLeast, bounded), satisfiedBy(profile().age(30)));
+    }
+
+    @Test
+    void profileWithoutAgeOnlyMatchesSearchesWithoutAge() {
+        add(search().ages(25, null));
+        long open = add(search().religion("Hindu"));
+
+        assertEquals(Set.of(open), satisfiedBy(profile().religion("Hindu")));
+    }
+
+    @Test
+    void anyAndBlankFieldsMatchEveryone() {
+        long any = add(search().gender("Any").religion("ANY").caste("  ").location("").profession("any"));
+        long female = add(search().gender("female"));
+
+        assertEquals(Set.of(any), satisfiedBy(profile().gender(User.Gender.MALE).religion("Hindu").caste("General")));
+        assertEquals(Set.of(any, female), satisfiedBy(profile().gender(User.Gender.FEMALE)));
+        assertEquals(Set.of(any), satisfiedBy(profile()));
+    }
+
+    @Test
+    void ownersOwnSearchesAreExcluded() {
+        long others = add(search().owner(2L).religion("Hindu"));
+        add(search().owner(PROFILE).religion("Hindu"));
+
+        assertEquals(Set.of(others), satisfiedBy(profile().religion("Hindu")));
+    }
+
+    @Test
+    void reindexingAndRemovingReplaceTheOldValues() {
+        SavedSearch original = search().religion("Hindu").location("Pune").build();
+        index.index(original);
+        SavedSearch edited = new SearchBuilder(original.getId()).religion("Hindu").location("Mumbai").ages(30, null).build();
+        index.index(edited);
+
+        assertEquals(Set.of(), satisfiedBy(profile().religion("Hindu").location("Pune").age(35)));
+        assertEquals(Set.of(edited.getId()), satisfiedBy(profile().religion("Hindu").location("Mumbai").age(35)));
+        assertEquals(Set.of(), satisfiedBy(profile().religion("Hindu").location("Mumbai").age(29)));
+
+        index.remove(edited.getId());
+        assertEquals(Set.of(), satisfiedBy(profile().religion("Hindu").location("Mumbai").age(35)));
+    }
+
+    private long add(SearchBuilder builder) {
+        SavedSearch search = builder.build();
+        index.index(search);
+        return search.getId();
+    }
+
+    private Set<Long> satisfiedBy(ProfileBuilder profile) {
+        List<SavedSearch> matched = index.findSatisfiedBy(profile.user);
+        return matched.stream().map(SavedSearch::getId).collect(Collectors.toSet());
+    }
+
+    private SearchBuilder search() {
+        return new SearchBuilder(nextSearchId++);
+    }
+
+    private static ProfileBuilder profile() {
+        return new ProfileBuilder();
+    }
+
+    private static final class SearchBuilder {
+
+        private final SavedSearch search = new SavedSearch();
+
+        SearchBuilder(long id) {
+            search.setId(id);
+            search.setUserId(OWNER);
+        }
+
+        SearchBuilder owner(long userId) {
+            search.setUserId(userId);
+            return this;
+        }
+
+        SearchBuilder ages(Integer min, Integer max) {
+            search.setAgeMin(min);
+            search.setAgeMax(max);
+            return this;
+        }
+
+        SearchBuilder gender(String gender) {
+            search.setGender(gender);
+            return this;
+        }
+
+        SearchBuilder religion(String religion) {
+            search.setReligion(religion);
+            return this;
+        }
+
+        SearchBuilder caste(String caste) {
+            search.setCaste(caste);
+            return this;
+        }
+
+        SearchBuilder location(String location) {
+            search.setLocation(location);
+            return this;
+        }
+
+        SearchBuilder profession(String profession) {
+            search.setProfession(profession);
+            return this;
+        }
+
+        SearchBuilder education(String education) {
+            search.setEducation(education);
+            return this;
+        }
+
+        SavedSearch build() {
+            return search;
+        }
+    }
+
+    private static final class ProfileBuilder {
+
+        private final User user = new User();
+
+        ProfileBuilder() {
+            user.setId(PROFILE);
+        }
+
+        ProfileBuilder age(int age) {
+            user.setAge(age);
+            return this;
+        }
+
+        ProfileBuilder gender(User.Gender gender) {
+            user.setGender(gender);
+            return this;
+        }
+
+        ProfileBuilder religion(String religion) {
+            user.setReligion(religion);
+            return this;
+        }
+
+        ProfileBuilder caste(String caste) {
+            user.setCaste(caste);
+            return this;
+        }
+
+        ProfileBuilder location(String location) {
+            user.setLocation(location);
+            return this;
+        }
+
+        ProfileBuilder profession(String profession) {
+            user.setProfession(profession);
+            return this;
+        }
+
+        ProfileBuilder education(String education) {
+            user.setEducation(education);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.matrimony.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.matrimony.CustomExceptions.ApiException;
+
+class ScoredMatchTest {
+
+    @Test
+    void cursorRoundTrips() {
+        ScoredMatch match = new ScoredMatch(123456L, 17);
+        assertEquals(match, ScoredMatch.fromCursor(match.toCursor()));
+    }
+
+    @Test
+    void cursorRoundTripsNegativeAndZeroScores() {
+        assertEquals(new ScoredMatch(1L, 0), ScoredMatch.fromCursor(new ScoredMatch(1L, 0).toCursor()));
+        assertEquals(new ScoredMatch(9L, -3), ScoredMatch.fromCursor(new ScoredMatch(9L, -3).toCursor()));
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        String cursor = new ScoredMatch(Long.MAX_VALUE, Integer.MAX_VALUE).toCursor();
+        assertEquals(cursor, cursor.replaceAll("[^A-Za-z0-9_-]", ""));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(ApiException.class, () -> ScoredMatch.fromCursor("not base64!"));
+        assertThrows(ApiException.class, () -> ScoredMatch.fromCursor(encode("17")));
+        assertThrows(ApiException.class, () -> ScoredMatch.fromCursor(encode("abc:12")));
+        assertThrows(ApiException.class, () -> ScoredMatch.fromCursor(encode("17:xyz")));
+        assertThrows(ApiException.class, () -> ScoredMatch.fromCursor(encode(":")));
+        assertThrows(ApiException.class, () -> ScoredMatch.fromCursor(""));
+    }
+
+    @Test
+    void rankingOrdersByScoreThenUserId() {
+        ScoredMatch best = new ScoredMatch(50L, 9);
+        ScoredMatch tieLow = new ScoredMatch(3L, 5);
+        ScoredMatch tieHigh = new ScoredMatch(7L, 5);
+
+        assertEquals(-1, Integer.signum(ScoredMatch.RANKING.compare(best, tieLow)));
+        assertEquals(-1, Integer.signum(ScoredMatch.RANKING.compare(tieLow, tieHigh)));
+        assertEquals(1, Integer.signum(ScoredMatch.RANKING.compare(tieHigh, tieLow)));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,130 @@
+package com.matrimony.Service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.matrimony.Entity.Preferences;
+import com.matrimony.Entity.User;
+
+/**
+ * The vector kernel must score exactly like the scalar one. Only compiled and run
+ * with the vector Maven profile: mvn test -Pvector.
+ */
+class VectorScoringKernelTest {
+
+    private final ScoringKernel scalar = new ScalarScoringKernel();
+    private final ScoringKernel vector = new VectorScoringKernel();
+
+    @Test
+    void matchesScalarOnRandomColumnsIncludingChunkTails() {
+        Random random = new Random(42);
+        int size = 5000;
+        int[][] columns = new int[5][size];
+        for (int[] column : columns) {
+            for (int slot = 0; slot < size; slot++) {
+                // A few absent ages at the bottom of the int range, like NO_AGE
+                column[slot] = random.nextInt(50) == 0 ? ColumnarProfileStore.NO_AGE : random.nextInt(40);
+            }
+        }
+        int[][] lows = { { 18 }, { 1 }, { 3, 7, 20 }, { 0, 39 }, { 5 } };
+        int[][] highs = { { 30 }, { 1 }, { 3, 9, 20 }, { 0, 39 }, { Integer.MAX_VALUE } };
+        int[] weights = { 200, 500, 300, 100, 150 };
+
+        // Counts below, at and just past a register width, and offsets that are not aligned
+        int[] counts = { 0, 1, 3, 7, 8, 9, 15, 16, 17, 63, 64, 65, 1000, 4096 };
+        for (int count : counts) {
+            for (int from : new int[] { 0, 1, 5, 13, size - count }) {
+                assertSameScores(columns, lows, highs, weights, 250, from, count);
+            }
+        }
+    }
+
+    @Test
+    void matchesScalarWhenEveryFieldIsAWildcard() {
+        // Unconstrained fields are folded into base, leaving no columns at all
+        assertSameScores(new int[0][], new int[0][], new int[0][], new int[0], 1300, 0, 37);
+    }
+
+    @Test
+    void storeRanksIdenticallyWithEitherKernel() {
+        MatchWeights weights = new MatchWeights();
+        ReflectionTestUtils.setField(weights, "age", 2);
+        ReflectionTestUtils.setField(weights, "gender", 5);
+        ReflectionTestUtils.setField(weights, "caste", 2);
+        ReflectionTestUtils.setField(weights, "religion", 3);
+        ReflectionTestUtils.setField(weights, "location", 2);
+        ReflectionTestUtils.setField(weights, "profession", 1);
+        ReflectionTestUtils.setField(weights, "education", 1);
+
+        String[] religions = { "Hindu", "Sikh", "Jain" };
+        String[] locations = { "Pune", "Mumbai", "Delhi", "Goa" };
+        List<User> users = new ArrayList<>();
+        RoaringBitmap candidates = new RoaringBitmap();
+        // Not a multiple of the chunk or register width, so both tails are exercised
+        for (long id = 1; id <= 9001; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setRole(User.Role.USER);
+            user.setIsActive(true);
+            user.setProfileApproved(true);
+            user.setAge(id % 17 == 0 ? null : 20 + (int) (id % 15));
+            user.setGender(id % 2 == 0 ? User.Gender.FEMALE : User.Gender.MALE);
+            user.setReligion(religions[(int) (id % 3)]);
+            user.setLocation(locations[(int) (id % 4)]);
+            user.setCaste("General");
+            user.setProfession(id % 5 == 0 ? "Doctor" : "Engineer");
+            users.add(user);
+            candidates.add((int) id);
+        }
+
+        Preferences preferences = new Preferences();
+        preferences.setAgeMin(24);
+        preferences.setGender("FEMALE");
+        preferences.setReligion("Hindu");
+        preferences.getLocations().addAll(List.of("Pune", "Goa"));
+        preferences.setCaste("Any");
+        preferences.setProfession("Doctor");
+        MatchCriteria criteria = MatchCriteria.from(preferences);
+
+        ColumnarProfileStore scalarStore = store(users, "scalar");
+        ColumnarProfileStore vectorStore = store(users, "vector");
+        assertInstanceOf(VectorScoringKernel.class, ReflectionTestUtils.getField(vectorStore, "kernel"));
+
+        ScoredMatch after = null;
+        for (int page = 0; page < 5; page++) {
+            List<ScoredMatch> expected = scalarStore.topMatches(criteria, candidates, weights, after, 500, null);
+            assertEquals(expected, vectorStore.topMatches(criteria, candidates, weights, after, 500, null));
+            after = expected.get(expected.size() - 1);
+        }
+    }
+
+    private void assertSameScores(int[][] columns, int[][] lows, int[][] highs, int[] weights, int base, int from, int count) {
+        int[] expected = new int[count + 8];
+        int[] actual = new int[count + 8];
+        Arrays.fill(expected, -7);
+        Arrays.fill(actual, -7);
+
+        scalar.score(columns, lows, highs, weights, base, from, count, expected);
+        vector.score(columns, lows, highs, weights, base, from, count, actual);
+
+        // Slots past count must be left untouched as well
+        assertArrayEquals(expected, actual, "from " + from + ", count " + count);
+    }
+
+    private static ColumnarProfileStore store(List<User> users, String engine) {
+        ColumnarProfileStore store = new ColumnarProfileStore();
+        store.setScoringEngine(engine);
+        store.rebuild(users);
+        return store;
+    }
+}
@@ -0,0 +1,55 @@
+package com.matrimony.Service;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * ScoringKernel using the Vector API: tests a full register of slots against
+ * each of a column's ranges and adds the weight under the combined mask. Only
+ * compiled with the vector Maven profile, and only loaded when
+ * match.scoring.engine=vector and the incubator module is present.
+ */
+public class VectorScoringKernel implements ScoringKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void score(int[][] columns, int[][] lows, int[][] highs, int[] weights, int base, int from, int count, int[] out) {
+        int upperBound = SPECIES.loopBound(count);
+        int slot = 0;
+
+        for (; slot < upperBound; slot += SPECIES.length()) {
+            IntVector score = IntVector.broadcast(SPECIES, base);
+            for (int f = 0; f < columns.length; f++) {
+                IntVector column = IntVector.fromArray(SPECIES, columns[f], from + slot);
+                VectorMask<Integer> hit = SPECIES.maskAll(false);
+                for (int r = 0; r < lows[f].length; r++) {
+                    int low = lows[f][r];
+                    int high = highs[f][r];
+                    hit = hit.or(low == high
+                            ? column.compare(VectorOperators.EQ, low)
+                            : column.compare(VectorOperators.GE, low).and(column.compare(VectorOperators.LE, high)));
+                }
+                score = score.add(weights[f], hit);
+            }
+            score.intoArray(out, slot);
+        }
+
+        // Remaining slots that do not fill a whole vector
+        for (; slot < count; slot++) {
+            int score = base;
+            for (int f = 0; f < columns.length; f++) {
+                int value = columns[f][from + slot];
+                for (int r = 0; r < lows[f].length; r++) {
+                    if (value >= lows[f][r] && value <= highs[f][r]) {
+                        score += weights[f];
+                        break;
+                    }
+                }
+            }
+            out[slot] = score;
+        }
+    }
+}
@@ -8,9 +8,21 @@ CREATE DATABASE IF NOT EXISTS `railway` DEFAULT CHARACTER SET utf8mb4 COLLATE ut
 USE `railway`;
 
 -- Drop existing tables if they exist (in reverse dependency order)
+DROP TABLE IF EXISTS `conversations`;
+DROP TABLE IF EXISTS `user_blocks`;
+DROP TABLE IF EXISTS `notifications`;
+DROP TABLE IF EXISTS `saved_searches`;
+DROP TABLE IF EXISTS `job_watermarks`;
+DROP TABLE IF EXISTS `acceptance_neighbors`;
+DROP TABLE IF EXISTS `user_matches`;
 DROP TABLE IF EXISTS `profile_view`;
 DROP TABLE IF EXISTS `pendingrequest`;
 DROP TABLE IF EXISTS `messages`;
+DROP TABLE IF EXISTS `preference_professions`;
+DROP TABLE IF EXISTS `preference_educations`;
+DROP TABLE IF EXISTS `preference_castes`;
+DROP TABLE IF EXISTS `preference_religions`;
+DROP TABLE IF EXISTS `preference_locations`;
 DROP TABLE IF EXISTS `preferences`;
 DROP TABLE IF EXISTS `profile_pictures`;
 DROP TABLE IF EXISTS `Users`;
@@ -56,6 +68,9 @@ CREATE TABLE `preferences` (
     `education` VARCHAR(255) NULL,
     `profession` VARCHAR(255) NULL,
     `gender` VARCHAR(10) NOT NULL,
+    `age_min` INT NULL,
+    `age_max` INT NULL,
+    `within_km` INT NULL,
     `user_id` BIGINT NOT NULL,
     `created_on` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     `updated_on` TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
@@ -63,6 +78,42 @@ CREATE TABLE `preferences` (
     UNIQUE KEY `unique_user_preferences` (`user_id`)
 );
 
+-- Optional multi-valued preferences; a non-empty set replaces the single column
+CREATE TABLE `preference_locations` (
+    `preferences_id` BIGINT NOT NULL,
+    `location` VARCHAR(255) NOT NULL,
+    PRIMARY KEY (`preferences_id`, `location`),
+    FOREIGN KEY (`preferences_id`) REFERENCES `preferences`(`id`) ON DELETE CASCADE
+);
+
+CREATE TABLE `preference_religions` (
+    `preferences_id` BIGINT NOT NULL,
+    `religion` VARCHAR(50) NOT NULL,
+    PRIMARY KEY (`preferences_id`, `religion`),
+    FOREIGN KEY (`preferences_id`) REFERENCES `preferences`(`id`) ON DELETE CASCADE
+);
+
+CREATE TABLE `preference_castes` (
+    `preferences_id` BIGINT NOT NULL,
+    `caste` VARCHAR(50) NOT NULL,
+    PRIMARY KEY (`preferences_id`, `caste`),
+    FOREIGN KEY (`preferences_id`) REFERENCES `preferences`(`id`) ON DELETE CASCADE
+);
+
+CREATE TABLE `preference_educations` (
+    `preferences_id` BIGINT NOT NULL,
+    `education` VARCHAR(255) NOT NULL,
+    PRIMARY KEY (`preferences_id`, `education`),
+    FOREIGN KEY (`preferences_id`) REFERENCES `preferences`(`id`) ON DELETE CASCADE
+);
+
+CREATE TABLE `preference_professions` (
+    `preferences_id` BIGINT NOT NULL,
+    `profession` VARCHAR(255) NOT NULL,
+    PRIMARY KEY (`preferences_id`, `profession`),
+    FOREIGN KEY (`preferences_id`) REFERENCES `preferences`(`id`) ON DELETE CASCADE
+);
+
 -- Create the ProfilePictures Table
 CREATE TABLE `profile_pictures` (
     `id` BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -96,6 +147,7 @@ CREATE TABLE `pendingrequest` (
     `receiver_id` BIGINT NOT NULL,
     `status` VARCHAR(20) NOT NULL DEFAULT 'PENDING',
     `timestamp` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `responded_at` TIMESTAMP NULL,
     `created_on` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     `updated_on` TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (`sender_id`) REFERENCES `Users`(`id`) ON DELETE CASCADE,
@@ -114,14 +166,107 @@ CREATE TABLE `profile_view` (
     FOREIGN KEY (`viewed_user_id`) REFERENCES `Users`(`id`) ON DELETE CASCADE
 );
 
+-- Create the UserMatches Table (materialized match lists, maintained by the backend)
+CREATE TABLE `user_matches` (
+    `id` BIGINT AUTO_INCREMENT PRIMARY KEY,
+    `user_id` BIGINT NOT NULL,
+    `candidate_id` BIGINT NOT NULL,
+    `score` INT NOT NULL,
+    FOREIGN KEY (`user_id`) REFERENCES `Users`(`id`) ON DELETE CASCADE,
+    FOREIGN KEY (`candidate_id`) REFERENCES `Users`(`id`) ON DELETE CASCADE,
+    UNIQUE KEY `unique_user_candidate` (`user_id`, `candidate_id`)
+);
+
+-- Create the AcceptanceNeighbors Table (top co-acceptance neighbors per user)
+CREATE TABLE `acceptance_neighbors` (
+    `id` BIGINT AUTO_INCREMENT PRIMARY KEY,
+    `user_id` BIGINT NOT NULL,
+    `neighbor_id` BIGINT NOT NULL,
+    `shared_count` INT NOT NULL,
+    FOREIGN KEY (`user_id`) REFERENCES `Users`(`id`) ON DELETE CASCADE,
+    FOREIGN KEY (`neighbor_id`) REFERENCES `Users`(`id`) ON DELETE CASCADE,
+    UNIQUE KEY `unique_user_neighbor` (`user_id`, `neighbor_id`)
+);
+
+-- Create the JobWatermarks Table (progress of incremental batch jobs)
+CREATE TABLE `job_watermarks` (
+    `job_name` VARCHAR(64) PRIMARY KEY,
+    `watermark_at` DATETIME NOT NULL,
+    `watermark_id` BIGINT NOT NULL
+);
+
+-- Create the SavedSearches Table (every filled-in field must match)
+CREATE TABLE `saved_searches` (
+    `id` BIGINT AUTO_INCREMENT PRIMARY KEY,
+    `user_id` BIGINT NOT NULL,
+    `name` VARCHAR(100),
+    `age_min` INT,
+    `age_max` INT,
+    `gender` VARCHAR(10),
+    `religion` VARCHAR(50),
+    `caste` VARCHAR(50),
+    `location` VARCHAR(100),
+    `profession` VARCHAR(100),
+    `education` VARCHAR(100),
+    `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (`user_id`) REFERENCES `Users`(`id`) ON DELETE CASCADE
+);
+
+-- Create the Conversations Table (one row per unordered user pair, lower id first)
+CREATE TABLE `conversations` (
+    `id` BIGINT AUTO_INCREMENT PRIMARY KEY,
+    `user_low_id` BIGINT NOT NULL,
+    `user_high_id` BIGINT NOT NULL,
+    `last_message_id` BIGINT NOT NULL,
+    `last_activity_at` DATETIME NOT NULL,
+    `unread_low` INT NOT NULL DEFAULT 0,
+    `unread_high` INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (`user_low_id`) REFERENCES `Users`(`id`) ON DELETE CASCADE,
+    FOREIGN KEY (`user_high_id`) REFERENCES `Users`(`id`) ON DELETE CASCADE,
+    UNIQUE KEY `unique_conversation_pair` (`user_low_id`, `user_high_id`)
+);
+
+-- Create the UserBlocks Table (HIDE: out of the user's matches; BLOCK: both ways, no requests or messages)
+CREATE TABLE `user_blocks` (
+    `id` BIGINT AUTO_INCREMENT PRIMARY KEY,
+    `user_id` BIGINT NOT NULL,
+    `blocked_user_id` BIGINT NOT NULL,
+    `type` VARCHAR(10) NOT NULL,
+    `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (`user_id`) REFERENCES `Users`(`id`) ON DELETE CASCADE,
+    FOREIGN KEY (`blocked_user_id`) REFERENCES `Users`(`id`) ON DELETE CASCADE,
+    UNIQUE KEY `unique_user_blocked` (`user_id`, `blocked_user_id`)
+);
+
+-- Create the Notifications Table
+CREATE TABLE `notifications` (
+    `id` BIGINT AUTO_INCREMENT PRIMARY KEY,
+    `user_id` BIGINT NOT NULL,
+    `type` VARCHAR(30) NOT NULL,
+    `message` VARCHAR(500) NOT NULL,
+    `related_user_id` BIGINT,
+    `is_read` BOOLEAN NOT NULL DEFAULT FALSE,
+    `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (`user_id`) REFERENCES `Users`(`id`) ON DELETE CASCADE
+);
+
 -- Create indexes for better performance
 CREATE INDEX `idx_users_email` ON `Users`(`email`);
 CREATE INDEX `idx_users_gender` ON `Users`(`gender`);
 CREATE INDEX `idx_users_location` ON `Users`(`location`);
+CREATE INDEX `idx_users_updated_on` ON `Users`(`updated_on`);
 CREATE INDEX `idx_preferences_user_id` ON `preferences`(`user_id`);
 CREATE INDEX `idx_messages_sender_receiver` ON `messages`(`sender_id`, `receiver_id`);
 CREATE INDEX `idx_pending_requests_sender_receiver` ON `pendingrequest`(`sender_id`, `receiver_id`);
+CREATE INDEX `idx_conversations_low_activity` ON `conversations`(`user_low_id`, `last_activity_at`);
+CREATE INDEX `idx_conversations_high_activity` ON `conversations`(`user_high_id`, `last_activity_at`);
+CREATE INDEX `idx_user_blocks_blocked` ON `user_blocks`(`blocked_user_id`);
+CREATE INDEX `idx_saved_searches_user` ON `saved_searches`(`user_id`);
+CREATE INDEX `idx_notifications_user` ON `notifications`(`user_id`, `id`);
+CREATE INDEX `idx_pendingrequest_responded_at` ON `pendingrequest`(`responded_at`, `id`);
 CREATE INDEX `idx_profile_views_viewer_viewed` ON `profile_view`(`viewer_user_id`, `viewed_user_id`);
+CREATE INDEX `idx_user_matches_ranking` ON `user_matches`(`user_id`, `score`, `candidate_id`);
+CREATE INDEX `idx_user_matches_candidate` ON `user_matches`(`candidate_id`);
 
 -- Insert sample admin user (password: admin123)
 INSERT INTO `Users` (`first_name`, `last_name`, `email`, `password`, `gender`, `date_of_birth`, `role`, `is_active`, `profile_approved`) 